@@ -2,6 +2,22 @@ package com.utils;
 
 import static io.restassured.RestAssured.oauth2;
 import aquality.selenium.core.logging.Logger;
+import com.google.gson.Gson;
+import com.utils.api.ApiMetrics;
+import com.utils.api.ApiRecorder;
+import com.utils.api.ApiRequest;
+import com.utils.api.ApiResponse;
+import com.utils.api.AsyncExecutor;
+import com.utils.api.HttpCache;
+import com.utils.api.HttpClientPool;
+import com.utils.api.LoadGenerator;
+import com.utils.api.LoadProfile;
+import com.utils.api.LoadReport;
+import com.utils.api.ReplayServer;
+import com.utils.api.ResilientExecutor;
+import com.utils.config.Configuration;
+import com.utils.json.JsonStreams;
+import com.utils.json.SharedGson;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.filter.Filter;
@@ -11,23 +27,56 @@ import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
 import io.restassured.specification.RequestSpecification;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Class for managing API requests
+ * Class for managing API requests.
+ * Every request returns its own {@link ApiResponse}. The getters of this class read the last response of the current thread
  */
 public class ApiManager {
     private static final String BASE_PATH = FileManager.getInstance().getProperties("ApiUrl");
     private static final String CONTENT_TYPE = "Content-Type";
     private static final String AUTHORISATION = "Authorization";
+    private static final String DEFAULT_ARCHIVE = "target/api-archive.ndjson.gz";
+    private static final Gson GSON = SharedGson.get();
     private static ApiManager instance;
+    private final Logger logger = Logger.getInstance();
+    private final ReplayServer replayServer = createReplayServer(ConfigManager.getInstance().getConfiguration());
+    private final ApiRecorder recorder = createRecorder(ConfigManager.getInstance().getConfiguration());
+    private final HttpClientPool httpClientPool = new HttpClientPool(ConfigManager.getInstance().getConfiguration());
+    private final RequestSpecification baseSpecification = new RequestSpecBuilder()
+            .setBaseUri(replayServer == null ? BASE_PATH : replayServer.getBaseUrl(BASE_PATH))
+            .setConfig(httpClientPool.getRestAssuredConfig())
+            .build();
+    private final String accessToken = FileManager.getInstance().getProperties("");
     private final RequestSpecification specification = new RequestSpecBuilder()
-            .setBaseUri(BASE_PATH)
+            .addRequestSpecification(baseSpecification)
             .addQueryParam("key", "value")
-            .setAuth(oauth2(FileManager.getInstance().getProperties("")))
+            .setAuth(oauth2(accessToken))
             .build();
-    private Response response;
+    private final ThreadLocal<ApiResponse> response = new ThreadLocal<>();
+    private final ApiMetrics metrics = new ApiMetrics();
+    private final ResilientExecutor resilientExecutor = ConfigManager.getInstance().getConfiguration().getBoolean("api.resilience.enabled", false)
+            ? new ResilientExecutor(ConfigManager.getInstance().getConfiguration(), metrics, this::getAsyncExecutor)
+            : null;
+    private final HttpCache httpCache = createHttpCache(ConfigManager.getInstance().getConfiguration());
+    private AsyncExecutor asyncExecutor;
 
     private ApiManager() {}
 
@@ -35,10 +84,18 @@ public class ApiManager {
      * Create an instance to get access to class methods
      * @return Class instance
      */
-    public static ApiManager getInstance() {
+    public static synchronized ApiManager getInstance() {
         if (instance == null) {
             instance = new ApiManager();
-            RestAssured.filters(new MyRequestFilter());
+            RestAssured.filters(new MyRequestFilter(instance.metrics));
+            if (instance.recorder != null) {
+                RestAssured.filters(instance.recorder);
+                Runtime.getRuntime().addShutdownHook(new Thread(instance.recorder::close, "api-recorder-close"));
+            }
+            String export = ConfigManager.getInstance().getConfiguration().getString("api.metrics.export");
+            if (export != null && !export.isBlank()) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> instance.metrics.export(export), "api-metrics-export"));
+            }
         }
         return instance;
     }
@@ -46,12 +103,10 @@ public class ApiManager {
     /**
      * Send GET request to API
      * @param target URL of request
+     * @return Response of the request
      */
-    public void getRequest(String target) {
-        response = RestAssured
-                .given()
-                .spec(specification)
-                .get(target);
+    public ApiResponse getRequest(String target) {
+        return execute(ApiRequest.get(target));
     }
 
     /**
@@ -59,35 +114,38 @@ public class ApiManager {
      * @param target URL of request
      * @param key The key of parameter
      * @param value The value of parameter to send
+     * @return Response of the request
      */
-    public void postRequest(String target, String key, String value) {
-        response = RestAssured
+    public ApiResponse postRequest(String target, String key, String value) {
+        return remember(RestAssured
                 .given()
                 .spec(specification)
                 .queryParam(key, value)
-                .post(target);
+                .post(target));
     }
 
     /**
      * Send POST request to API
      * @param target URL of request
      * @param param Parameters given to request in format key-value through Map<String, String>
+     * @return Response of the request
      */
-    public void postRequest(String target, Map<String, String> param) {
-        response = RestAssured
+    public ApiResponse postRequest(String target, Map<String, String> param) {
+        return remember(RestAssured
                 .given()
                 .spec(specification)
                 .params(param)
-                .post(target);
+                .post(target));
     }
 
     /**
      * Send data to the API server to create new resource
      * @param target URL to post request
      * @param obj T object to be sent
+     * @return Response of the request
      */
-    public <T> void postRequest(String target, T obj) {
-        response = RestAssured.given().header(CONTENT_TYPE, ContentType.JSON).body(obj).post(BASE_PATH + target);
+    public <T> ApiResponse postRequest(String target, T obj) {
+        return remember(RestAssured.given().spec(baseSpecification).header(CONTENT_TYPE, ContentType.JSON).body(toJson(obj)).post(target));
     }
 
     /**
@@ -97,13 +155,169 @@ public class ApiManager {
      * @param obj    T object to be sent
      * @param header The value of header in the request
      * @param <T>    The type of object
+     * @return Response of the request
      */
-    public <T> void postRequest(String target, T obj, String header) {
-        response = RestAssured.given()
+    public <T> ApiResponse postRequest(String target, T obj, String header) {
+        return remember(RestAssured.given()
+                .spec(baseSpecification)
                 .header(CONTENT_TYPE, ContentType.JSON)
                 .header(AUTHORISATION, header)
-                .body(obj)
-                .post(BASE_PATH + target);
+                .body(toJson(obj))
+                .post(target));
+    }
+
+    /**
+     * Send request to API. If api.cache.enabled is set, GET responses are cached and revalidated, see {@link HttpCache}.
+     * If api.resilience.enabled is set, GET requests are retried, hedged and guarded by circuit breaker, see {@link ResilientExecutor}
+     * @param request The request to send
+     * @return Response of the request
+     */
+    public ApiResponse execute(ApiRequest request) {
+        if (httpCache != null && request.getMethod().equals("GET")) {
+            return remember(httpCache.execute(HttpCache.key(BASE_PATH, request, accessToken), request, accessToken, this::fetch));
+        }
+        return remember(fetch(request));
+    }
+
+    /**
+     * Send request to API asynchronously. The response is not stored as the last response of the thread
+     * @param request The request to send
+     * @return Future of the response
+     */
+    public CompletableFuture<ApiResponse> executeAsync(ApiRequest request) {
+        return getAsyncExecutor().submit(AsyncExecutor.hostOf(BASE_PATH, request.getTarget()), () -> new ApiResponse(send(request)));
+    }
+
+    /**
+     * Send GET request to API asynchronously
+     * @param target URL of request
+     * @return Future of the response
+     */
+    public CompletableFuture<ApiResponse> getRequestAsync(String target) {
+        return executeAsync(ApiRequest.get(target));
+    }
+
+    /**
+     * Send data to the API server asynchronously
+     * @param target URL to post request
+     * @param obj T object to be sent
+     * @param <T> The type of object
+     * @return Future of the response
+     */
+    public <T> CompletableFuture<ApiResponse> postRequestAsync(String target, T obj) {
+        return executeAsync(ApiRequest.post(target).body(obj));
+    }
+
+    /**
+     * Send all the requests concurrently and wait for all the responses
+     * @param requests The requests to send
+     * @return Responses in the order of requests
+     * @throws java.util.concurrent.CompletionException if any request fails
+     */
+    public List<ApiResponse> executeAll(List<ApiRequest> requests) {
+        List<CompletableFuture<ApiResponse>> futures = requests.stream().map(this::executeAsync).collect(Collectors.toList());
+        CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * Send the request at the arrival rate of the profile, independently of response times.
+     * Settings: api.load.maxInFlight - max number of concurrent requests, api.load.maxBacklog - max number of requests
+     * waiting for a free worker, the rest are dropped, api.load.drainTimeout - time to wait for the requests in flight at the end
+     * @param request The request to send
+     * @param profile Arrival rate over time, e.g. LoadProfile.ramp(0, 50, Duration.ofSeconds(10)).thenConstant(50, Duration.ofMinutes(1))
+     * @return Report with latency percentiles and throughput
+     */
+    public LoadReport runLoad(ApiRequest request, LoadProfile profile) {
+        return runLoad(() -> request, profile);
+    }
+
+    /**
+     * Send the requests at the arrival rate of the profile, independently of response times
+     * @param requests Supplier of the next request to send, called from several threads
+     * @param profile Arrival rate over time
+     * @return Report with latency percentiles and throughput
+     */
+    public LoadReport runLoad(Supplier<ApiRequest> requests, LoadProfile profile) {
+        Configuration config = ConfigManager.getInstance().getConfiguration();
+        LoadGenerator generator = new LoadGenerator(config.getInt("api.load.maxInFlight", 200),
+                config.getInt("api.load.maxBacklog", 10_000), config.getDuration("api.load.drainTimeout", Duration.ofSeconds(30)));
+        return generator.run(profile, () -> new ApiResponse(send(requests.get())));
+    }
+
+    /**
+     * Send GET request and read JSON array of the response element by element.
+     * The response is not buffered, so only the current element is held in memory
+     * @param target URL of request
+     * @param cl The class of elements
+     * @param <T> The type of elements
+     * @return Stream of elements. Must be closed to release the connection
+     */
+    public <T> Stream<T> streamListOfObjects(String target, Class<T> cl) {
+        return executeStream(ApiRequest.get(target), "$", cl);
+    }
+
+    /**
+     * Send request and read JSON array by the path of the response element by element
+     * @param request The request to send
+     * @param path Keys and indexes to the array separated by dots, e.g. "data.items". "$" for the root
+     * @param type The type of elements
+     * @param <T> The type of elements
+     * @return Stream of elements, empty if there is no array by the path. Must be closed to release the connection
+     * @throws IllegalStateException if the status code is not 2xx
+     */
+    public <T> Stream<T> executeStream(ApiRequest request, String path, Type type) {
+        Response rawResponse = send(request);
+        InputStream body = rawResponse.asInputStream();
+        if (rawResponse.statusCode() < 200 || rawResponse.statusCode() >= 300) {
+            try {
+                body.close();
+            } catch (IOException ex) {
+                logger.error(ex.getMessage());
+            }
+            throw new IllegalStateException(String.format("%1$s => %2$s", request, rawResponse.getStatusLine()));
+        }
+        return JsonStreams.streamArray(new BufferedReader(new InputStreamReader(body, charsetOf(rawResponse))), GSON, type, path);
+    }
+
+    /**
+     * Get per-endpoint metrics of all the requests. Set api.metrics.export to export them to JSON or CSV file at the end of the run
+     * @return API metrics
+     */
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the cache of GET responses, enabled with api.cache.enabled
+     * @return HTTP cache or null if it is disabled
+     */
+    public HttpCache getHttpCache() {
+        return httpCache;
+    }
+
+    /**
+     * Get the local stub replaying the recorded requests, enabled with api.replay.mode=replay
+     * @return Replay server or null if the requests are sent to the real API
+     */
+    public ReplayServer getReplayServer() {
+        return replayServer;
+    }
+
+    /**
+     * Get the pool of HTTP connections shared by all the requests
+     * @return HTTP connection pool
+     */
+    public HttpClientPool getHttpClientPool() {
+        return httpClientPool;
+    }
+
+    /**
+     * Get the last response received by the current thread
+     * @return Last response or null if the thread has not sent any request
+     */
+    public ApiResponse getLastResponse() {
+        return response.get();
     }
 
     /**
@@ -116,7 +330,7 @@ public class ApiManager {
      * @return Status code
      */
     public int getStatusCode () {
-        return response.statusCode();
+        return last().getStatusCode();
     }
 
     /**
@@ -124,7 +338,7 @@ public class ApiManager {
      * @return String representation of Content type
      */
     public String getContentType() {
-        return response.contentType().split(";")[0];
+        return last().getContentType();
     }
 
     /**
@@ -132,7 +346,7 @@ public class ApiManager {
      * @return The String, that represents the request body
      */
     public String getBody() {
-        return response.getBody().asString();
+        return last().getBody();
     }
 
     /**
@@ -140,7 +354,7 @@ public class ApiManager {
      * @return T object
      */
     public <T> T convertRequestToPojo(Class<T> cl) {
-        return response.as(cl);
+        return last().as(cl);
     }
 
     /**
@@ -150,7 +364,7 @@ public class ApiManager {
      * @return List of values by key "target"
      */
     public <T extends Comparable<T>> List<T> getList(String target) {
-        return response.jsonPath().getList(target);
+        return last().getList(target);
     }
 
     /**
@@ -160,7 +374,7 @@ public class ApiManager {
      * @return The value by the key
      */
     public <T> T getValue(T key) {
-        return response.jsonPath().get(key.toString());
+        return last().getValue(key.toString());
     }
 
     /**
@@ -168,22 +382,163 @@ public class ApiManager {
      * @return List of T objects
      */
     public <T> List<T> getListOfObjects(Class<T> cl) {
-        return response.jsonPath().getList("$", cl);
+        return last().getListOfObjects(cl);
+    }
+
+    private ApiResponse fetch(ApiRequest request) {
+        if (resilientExecutor != null && request.getMethod().equals("GET")) {
+            return resilientExecutor.execute(AsyncExecutor.hostOf(BASE_PATH, request.getTarget()), request.getMethod(),
+                    normalizePath(request.getTarget()), () -> new ApiResponse(send(request)));
+        }
+        return new ApiResponse(send(request));
+    }
+
+    private Response send(ApiRequest request) {
+        RequestSpecification spec = RestAssured.given().spec(specification);
+        request.getQueryParams().forEach((key, value) -> spec.queryParam(key, value));
+        if (!request.getFormParams().isEmpty()) {
+            spec.params(request.getFormParams());
+        }
+        request.getHeaders().forEach((name, value) -> spec.header(name, value));
+        if (request.getBody() != null) {
+            spec.contentType(ContentType.JSON).body(toJson(request.getBody()));
+        }
+        return spec.request(request.getMethod(), request.getTarget());
+    }
+
+    /**
+     * Serialize the body with the shared Gson, so generated adapters of {@link com.utils.json.JsonModel} classes are used
+     * @param body The object or already serialized String
+     * @return JSON
+     */
+    private static String toJson(Object body) {
+        return body instanceof String ? (String) body : GSON.toJson(body);
+    }
+
+    private static Charset charsetOf(Response rawResponse) {
+        String contentType = rawResponse.contentType();
+        if (contentType != null) {
+            for (String part : contentType.split(";")) {
+                String[] pair = part.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equalsIgnoreCase("charset") && Charset.isSupported(pair[1].replace("\"", ""))) {
+                    return Charset.forName(pair[1].replace("\"", ""));
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private synchronized AsyncExecutor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            Configuration config = ConfigManager.getInstance().getConfiguration();
+            asyncExecutor = new AsyncExecutor(
+                    config.getInt("api.async.threads", Runtime.getRuntime().availableProcessors() * 4),
+                    config.getInt("api.async.maxPerHost", 16),
+                    config.getBoolean("api.async.virtualThreads", true));
+        }
+        return asyncExecutor;
+    }
+
+    private static ReplayServer createReplayServer(Configuration config) {
+        if (!config.getString("api.replay.mode", "off").equalsIgnoreCase("replay")) {
+            return null;
+        }
+        Path archive = Paths.get(config.getString("api.replay.archive", DEFAULT_ARCHIVE));
+        try {
+            return new ReplayServer(archive, config.getDuration("api.replay.latency", Duration.ZERO),
+                    config.getDuration("api.replay.jitter", Duration.ZERO));
+        } catch (IOException ex) {
+            Logger.getInstance().error(String.format("Can't replay API archive %1$s, requests are sent to %2$s%n%3$s",
+                    archive, BASE_PATH, ex.getMessage()));
+            return null;
+        }
+    }
+
+    private static ApiRecorder createRecorder(Configuration config) {
+        if (!config.getString("api.replay.mode", "off").equalsIgnoreCase("record")) {
+            return null;
+        }
+        Path archive = Paths.get(config.getString("api.replay.archive", DEFAULT_ARCHIVE));
+        try {
+            return new ApiRecorder(archive);
+        } catch (IOException ex) {
+            Logger.getInstance().error(String.format("Can't create API archive %1$s, requests are not recorded%n%2$s", archive, ex.getMessage()));
+            return null;
+        }
+    }
+
+    private static HttpCache createHttpCache(Configuration config) {
+        if (!config.getBoolean("api.cache.enabled", false)) {
+            return null;
+        }
+        String directory = config.getString("api.cache.dir");
+        return new HttpCache(config.getInt("api.cache.maxSizeMb", 32) * 1024L * 1024L,
+                directory == null || directory.isBlank() ? null : Paths.get(directory));
+    }
+
+    private ApiResponse remember(Response rawResponse) {
+        return remember(new ApiResponse(rawResponse));
+    }
+
+    private ApiResponse remember(ApiResponse apiResponse) {
+        response.set(apiResponse);
+        return apiResponse;
+    }
+
+    /**
+     * Get path of the URL with leading slash and without query
+     * @param target Absolute or relative URL
+     * @return Path
+     */
+    static String normalizePath(String target) {
+        String path = target;
+        if (path.contains("://")) {
+            path = URI.create(path).getPath();
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private ApiResponse last() {
+        ApiResponse apiResponse = response.get();
+        if (apiResponse == null) {
+            throw new IllegalStateException("No request has been sent from the current thread");
+        }
+        return apiResponse;
     }
 
     /**
-     * Filter request command and add logging
+     * Filter request command, add logging and record latency, sizes and errors to {@link ApiMetrics}
      */
     static class MyRequestFilter implements Filter {
         private final Logger logger = Logger.getInstance();
+        private final ApiMetrics metrics;
+
+        MyRequestFilter(ApiMetrics metrics) {
+            this.metrics = metrics;
+        }
 
         @Override
         public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
-            Response response = ctx.next(requestSpec, responseSpec);
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = ctx.next(requestSpec, responseSpec);
+            } catch (RuntimeException ex) {
+                metrics.record(requestSpec.getMethod(), pathOf(requestSpec), (System.nanoTime() - start) / 1000, 0, requestBytes(requestSpec), -1);
+                throw ex;
+            }
+            metrics.record(requestSpec.getMethod(), pathOf(requestSpec), (System.nanoTime() - start) / 1000, response.statusCode(),
+                    requestBytes(requestSpec), responseBytes(response));
+            String attempt = ResilientExecutor.currentAttempt();
+            String suffix = attempt == null ? "" : String.format(" (%1$s)", attempt);
             if (requestSpec.getMethod().equals("GET")) {
-                logger.info(String.format("Getting request from %1$s", requestSpec.getURI()));
+                logger.info(String.format("Getting request from %1$s%2$s", requestSpec.getURI(), suffix));
             } else if (requestSpec.getMethod().equals("POST")) {
-                logger.info(String.format("Post request to %1$s", requestSpec.getURI()));
+                logger.info(String.format("Post request to %1$s%2$s", requestSpec.getURI(), suffix));
             }
             Logger.getInstance().info(String.format("Status code of request is: %1$s", response.statusCode()));
             if (response.statusCode() >= 400) {
@@ -191,5 +546,27 @@ public class ApiManager {
             }
             return response;
         }
+
+        private static String pathOf(FilterableRequestSpecification requestSpec) {
+            String path = requestSpec.getUserDefinedPath();
+            return normalizePath(path == null || path.isEmpty() ? requestSpec.getURI() : path);
+        }
+
+        private static long requestBytes(FilterableRequestSpecification requestSpec) {
+            Object body = requestSpec.getBody();
+            if (body instanceof byte[]) {
+                return ((byte[]) body).length;
+            }
+            return body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8).length : -1;
+        }
+
+        private static long responseBytes(Response response) {
+            String length = response.header("Content-Length");
+            try {
+                return length == null ? -1 : Long.parseLong(length.trim());
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
     }
 }
@@ -0,0 +1,137 @@
+package com.utils;
+
+import aquality.selenium.core.logging.Logger;
+import com.utils.config.Configuration;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Class for loading configuration once and sharing it between threads as an immutable snapshot
+ */
+public class ConfigManager {
+    private static final String CONFIG_FILE = "config.properties";
+    private static final String HOT_RELOAD_KEY = "config.hotReload";
+    private static ConfigManager instance;
+    private final Logger logger = Logger.getInstance();
+    private final AtomicReference<Configuration> snapshot = new AtomicReference<>();
+    private WatchService watchService;
+
+    private ConfigManager() {
+        reload();
+        if (getConfiguration().getBoolean(HOT_RELOAD_KEY, false)) {
+            enableHotReload();
+        }
+    }
+
+    public static synchronized ConfigManager getInstance() {
+        if (instance == null) {
+            instance = new ConfigManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Get current configuration snapshot
+     * @return Configuration snapshot
+     */
+    public Configuration getConfiguration() {
+        return snapshot.get();
+    }
+
+    /**
+     * Re-read configuration file and atomically replace the current snapshot
+     */
+    public void reload() {
+        snapshot.set(Configuration.of(loadFile(CONFIG_FILE), System.getenv(), System.getProperties()));
+    }
+
+    /**
+     * Start watching the configuration file and reload the snapshot on every modification
+     */
+    public synchronized void enableHotReload() {
+        if (watchService != null) {
+            return;
+        }
+        String path = FileManager.getInstance().getResourcePath(CONFIG_FILE);
+        if (path == null) {
+            logger.error(String.format("File %s is not found, hot reload is disabled", CONFIG_FILE));
+            return;
+        }
+        Path file = Paths.get(path);
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException ex) {
+            logger.error(String.format("Can't watch file %1$s%n%2$s", file, ex.getMessage()));
+            return;
+        }
+        Thread watcher = new Thread(() -> watch(file.getFileName()), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info(String.format("Hot reload of %1$s is enabled", file));
+    }
+
+    /**
+     * Stop watching the configuration file
+     */
+    public synchronized void disableHotReload() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            logger.error(ex.getMessage());
+        }
+        watchService = null;
+    }
+
+    private void watch(Path fileName) {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                    logger.info(String.format("Configuration %1$s is reloaded", fileName));
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            logger.info("Hot reload of configuration is stopped");
+        }
+    }
+
+    private Properties loadFile(String src) {
+        Properties properties = new Properties();
+        String path = FileManager.getInstance().getResourcePath(src);
+        if (path == null) {
+            logger.error(String.format("File %s is not found", src));
+            return properties;
+        }
+        try (FileInputStream fileInputStream = new FileInputStream(path)) {
+            properties.load(fileInputStream);
+        } catch (IOException ex) {
+            logger.error(String.format("File %s is not found%n%s", src, ex.getMessage()));
+        }
+        return properties;
+    }
+}
@@ -1,14 +1,33 @@
 package com.utils;
 
+import com.utils.config.Configuration;
+import com.utils.db.BatchExecutor;
+import com.utils.db.BatchResult;
+import com.utils.db.ConnectionPool;
+import com.utils.db.PoolSettings;
+import com.utils.db.QueryBuilder;
+import com.utils.db.QueryCache;
+import com.utils.db.ResultStreams;
+import com.utils.db.RowMapper;
+import com.utils.db.SqlDialect;
 import org.apache.log4j.Logger;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 
 /**
- * Class for managing queries to DataBase
+ * Class for managing queries to DataBase.
+ * Every query leases its own connection from the {@link ConnectionPool}, so the class can be used from parallel threads
  */
 public class DataBaseManager {
     private static final Logger LOGGER = Logger.getLogger(DataBaseManager.class.getName());
@@ -16,24 +35,62 @@ public class DataBaseManager {
     private static final String ERROR_MSG = "Can't get access to database or incorrect SQL query";
     private static final String ERROR_FORMAT = "%1$s%n%2$s";
     private static DataBaseManager instance;
-    private static Connection connection;
-    private Statement statement;
-    private ResultSet rs = null;
+    private static Connection sharedConnection;
+    private final ConnectionPool pool;
+    private final BatchExecutor batchExecutor;
+    private final int fetchSize;
+    private final QueryBuilder queryBuilder;
+    private final QueryCache queryCache;
+    private final ThreadLocal<ResultSet> rs = new ThreadLocal<>();
 
     private DataBaseManager() {
-        setConnection();
+        Configuration config = ConfigManager.getInstance().getConfiguration();
+        pool = new ConnectionPool(PoolSettings.from(config));
+        fetchSize = config.getInt("db.fetchSize", 500);
+        queryCache = config.getBoolean("db.cache.enabled", false)
+                ? new QueryCache(config.getInt("db.cache.maxEntries", 1000), config.getDuration("db.cache.ttl", Duration.ofMinutes(5)))
+                : null;
+        String dialect = config.getString("db.dialect");
+        queryBuilder = new QueryBuilder(dialect == null ? SqlDialect.fromUrl(config.getString("connectionPath")) : SqlDialect.valueOf(dialect.trim().toUpperCase(Locale.ROOT)));
+        batchExecutor = new BatchExecutor(pool, config.getInt("db.batch.size", 1000), config.getInt("db.batch.maxParameters", 2000));
+        LOGGER.info("Connection is created successfully");
+    }
+
+    /**
+     * Get the connection shared by the callers of this method. It is created on the first call
+     * outside of the pool and is closed by {@link #closeConnection()}, so it must not be closed by the caller.
+     * Use {@link #leaseConnection()} to get a connection for the current thread only
+     * @return Shared connection or null if connection can't be created
+     */
+    public static synchronized Connection getConnection() {
         try {
-            statement = getConnection().createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE);
+            if (sharedConnection == null || sharedConnection.isClosed()) {
+                PoolSettings settings = getInstance().pool.getSettings();
+                sharedConnection = DriverManager.getConnection(settings.getUrl(), settings.getUser(), settings.getPassword());
+            }
         } catch (SQLException ex) {
-            LOGGER.error(ex.getMessage());
+            LOGGER.error(String.format("Can't get connection%n%1$s", ex.getMessage()));
+            sharedConnection = null;
         }
+        return sharedConnection;
     }
 
-    public static Connection getConnection() {
+    /**
+     * Lease connection from the pool. The connection must be closed to return it to the pool,
+     * otherwise the pool is exhausted after db.pool.maxSize leases
+     * @return Leased connection or null if connection can't be acquired
+     */
+    public static Connection leaseConnection() {
+        Connection connection = null;
+        try {
+            connection = getInstance().pool.acquire();
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("Can't get connection%n%1$s", ex.getMessage()));
+        }
         return connection;
     }
 
-    public static DataBaseManager getInstance() {
+    public static synchronized DataBaseManager getInstance() {
         if (instance == null) {
             instance = new DataBaseManager();
         }
@@ -41,16 +98,39 @@ public class DataBaseManager {
     }
 
     /**
-     * Close the connection
+     * Get the connection pool used by the manager
+     * @return Connection pool
      */
-    public static void closeConnection() {
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Get the cache of query results, enabled with db.cache.enabled
+     * @return Query cache or null if it is disabled
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Close the shared connection and all the connections of the pool
+     */
+    public static synchronized void closeConnection() {
         LOGGER.info("Close connection");
-        try {
-            connection.close();
-            LOGGER.info("Connection is closed successfully");
-        } catch (SQLException ex) {
-            LOGGER.error(String.format("Can't close connection%n%1$s",  ex.getMessage()));
+        if (sharedConnection != null) {
+            try {
+                sharedConnection.close();
+            } catch (SQLException ex) {
+                LOGGER.error(String.format("Can't close connection%n%1$s", ex.getMessage()));
+            }
+            sharedConnection = null;
+        }
+        if (instance != null) {
+            instance.pool.close();
+            instance = null;
         }
+        LOGGER.info("Connection is closed successfully");
     }
 
     /**
@@ -61,11 +141,11 @@ public class DataBaseManager {
     public ResultSet selectQuery(String table) {
         try {
             LOGGER.info(String.format("Getting data from database with next query: \"SELECT * FROM %1$s\"", table));
-            rs = statement.executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_all.sql"), table));
+            rs.set(executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_all.sql"), table)));
         } catch (SQLException ex) {
             LOGGER.error(String.format("%1$s: \"SELECT * FROM %2$s\"%n%3$s", ERROR_MSG, table, ex.getMessage()));
         }
-        return rs;
+        return rs.get();
     }
 
     /**
@@ -76,7 +156,7 @@ public class DataBaseManager {
     public void selectQuery(String columnName, String table) {
         try {
             LOGGER.info(String.format("Getting data from database with next query: \"SELECT %1$s FROM %2$s\"", columnName, table));
-            rs = statement.executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_without_conditions.sql"), columnName, table));
+            rs.set(executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_without_conditions.sql"), columnName, table)));
         } catch (SQLException ex) {
             LOGGER.error(String.format("%1$s: \"SELECT %2$s FROM %3$s\"%n%4$s", ERROR_MSG, columnName, table, ex.getMessage()));
         }
@@ -92,11 +172,62 @@ public class DataBaseManager {
     public ResultSet selectQuery(String columnName, String table, String conditions) {
         try {
             LOGGER.info(String.format("Getting data from database with next query: \"SELECT %1$s FROM %2$s WHERE %3$s\"", columnName, table, conditions));
-            rs = statement.executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_with_conditions.sql"), columnName, table, conditions));
+            rs.set(executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_with_conditions.sql"), columnName, table, conditions)));
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("%1$s: \"SELECT %2$s FROM %3$s WHERE %4$s\"%n%5$s", ERROR_MSG, columnName, table, conditions, ex.getMessage()));
+        }
+        return rs.get();
+    }
+
+    /**
+     * Select specific data from given table ang given column using parameterized conditions.
+     * The values are bound to the "?" placeholders of conditions, so the database can reuse the query plan
+     * @param columnName The column to get data
+     * @param table The table to get data
+     * @param conditions Conditions with "?" placeholders, e.g. "id = ? AND name = ?"
+     * @param params Values bound to the placeholders in the given order
+     * @return ResultSet, contains of all the data due to the specified request
+     */
+    public ResultSet selectQuery(String columnName, String table, String conditions, Object... params) {
+        try {
+            LOGGER.info(String.format("Getting data from database with next query: \"SELECT %1$s FROM %2$s WHERE %3$s\" %4$s",
+                    columnName, table, conditions, Arrays.toString(params)));
+            rs.set(executeQuery(String.format(fileManager.getSQLQuery("sql_query/select_with_conditions.sql"), columnName, table, conditions), params));
         } catch (SQLException ex) {
             LOGGER.error(String.format("%1$s: \"SELECT %2$s FROM %3$s WHERE %4$s\"%n%5$s", ERROR_MSG, columnName, table, conditions, ex.getMessage()));
         }
-        return rs;
+        return rs.get();
+    }
+
+    /**
+     * Read the query result lazily row by row with forward-only, read-only cursor.
+     * Rows are fetched from database by db.fetchSize and are not buffered in memory.
+     * The stream holds a connection until it is closed or fully consumed, so use it in try-with-resources
+     * @param sqlQuery The query with "?" placeholders
+     * @param mapper Mapper of rows, e.g. {@link RowMapper#bean(Class)}
+     * @param params Values bound to the placeholders in the given order
+     * @param <T> The type of objects in the stream
+     * @return Stream of mapped rows or empty stream if the query can't be executed
+     */
+    public <T> Stream<T> stream(String sqlQuery, RowMapper<T> mapper, Object... params) {
+        try {
+            LOGGER.info(String.format("Streaming data from database with next query: \"%1$s\" %2$s", sqlQuery, Arrays.toString(params)));
+            return ResultStreams.stream(pool, sqlQuery, fetchSize, mapper, params);
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("%1$s: \"%2$s\"%n%3$s", ERROR_MSG, sqlQuery, ex.getMessage()));
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Read the query result lazily row by row as maps of column label and value
+     * @param sqlQuery The query with "?" placeholders
+     * @param params Values bound to the placeholders in the given order
+     * @return Stream of rows or empty stream if the query can't be executed
+     * @see #stream(String, RowMapper, Object...)
+     */
+    public Stream<Map<String, Object>> streamMaps(String sqlQuery, Object... params) {
+        return stream(sqlQuery, RowMapper.asMap(), params);
     }
 
     /**
@@ -106,7 +237,7 @@ public class DataBaseManager {
     public void insertQuery(String sqlQuery) {
         try {
             LOGGER.info(String.format("Putting data into database with next query: %1$s", sqlQuery));
-            statement.executeUpdate(sqlQuery);
+            executeUpdate(sqlQuery);
         } catch (SQLException ex) {
             LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
         }
@@ -119,7 +250,7 @@ public class DataBaseManager {
     public void updateRecord(String sqlQuery) {
         try {
             LOGGER.info(String.format("Updating data in database with next query: %1$s", sqlQuery));
-            statement.executeUpdate(sqlQuery);
+            executeUpdate(sqlQuery);
         } catch (SQLException ex) {
             LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
         }
@@ -132,10 +263,82 @@ public class DataBaseManager {
     public void deleteRecord(String sqlQuery) {
         try {
             LOGGER.info(String.format("Deleting data from database with next query: %1$s", sqlQuery));
-            statement.executeUpdate(sqlQuery);
+            executeUpdate(sqlQuery);
+        } catch (SQLException ex) {
+            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Execute parameterized query for many rows in JDBC batches inside one transaction
+     * @param sqlQuery The query with "?" placeholders
+     * @param rows Values bound to the placeholders, one array per row
+     * @return Counts and timing of executed batches or null if the transaction is rolled back
+     */
+    public BatchResult executeBatch(String sqlQuery, Stream<Object[]> rows) {
+        try {
+            LOGGER.info(String.format("Executing batch in database with next query: %1$s", sqlQuery));
+            return batchExecutor.execute(sqlQuery, rows);
         } catch (SQLException ex) {
             LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
+        } finally {
+            if (queryCache != null) {
+                queryCache.invalidate(sqlQuery);
+            }
         }
+        return null;
+    }
+
+    /**
+     * Execute parameterized query for many rows in JDBC batches inside one transaction
+     * @param sqlQuery The query with "?" placeholders
+     * @param rows Values bound to the placeholders, one array per row
+     * @return Counts and timing of executed batches or null if the transaction is rolled back
+     */
+    public BatchResult executeBatch(String sqlQuery, List<Object[]> rows) {
+        return executeBatch(sqlQuery, rows.stream());
+    }
+
+    /**
+     * Execute many insert, update or delete queries in JDBC batches inside one transaction
+     * @param sqlQueries The queries to be executed
+     * @return Counts and timing of executed batches or null if the transaction is rolled back
+     */
+    public BatchResult executeBatch(List<String> sqlQueries) {
+        try {
+            LOGGER.info(String.format("Executing batch of %1$s queries in database", sqlQueries.size()));
+            return batchExecutor.executeStatements(sqlQueries.stream());
+        } catch (SQLException ex) {
+            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
+        } finally {
+            if (queryCache != null) {
+                sqlQueries.forEach(queryCache::invalidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Insert many rows into the table in batches inside one transaction
+     * @param table The table to insert data
+     * @param columns The columns to insert data
+     * @param rows Values of columns, one array per row
+     * @param multiRowValues true - to rewrite rows to multi-row "VALUES (..), (..)" statements,
+     *                       false - to send one statement per row in JDBC batches
+     * @return Counts and timing of executed batches or null if the transaction is rolled back
+     */
+    public BatchResult insertBatch(String table, List<String> columns, Stream<Object[]> rows, boolean multiRowValues) {
+        try {
+            LOGGER.info(String.format("Putting batch of data into database table %1$s (%2$s)", table, String.join(", ", columns)));
+            return batchExecutor.insert(table, columns, rows, multiRowValues);
+        } catch (SQLException ex) {
+            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
+        } finally {
+            if (queryCache != null) {
+                queryCache.invalidateTable(table);
+            }
+        }
+        return null;
     }
 
     /**
@@ -145,16 +348,62 @@ public class DataBaseManager {
      * @return Max value
      */
     public Object getMax(String columnName, String table) {
-        Object max = null;
-        selectQuery(String.format("max(%1$s)", columnName), table);
+        return getMax(columnName, table, Object.class);
+    }
+
+    /**
+     * Get max value in the given column and given table of database
+     * @param columnName The column to get max value
+     * @param table The table to get data
+     * @param type The class of value
+     * @param <T> The type of value
+     * @return Max value or null if the table is empty
+     */
+    public <T> T getMax(String columnName, String table, Class<T> type) {
+        return queryValue(queryBuilder.aggregate(QueryBuilder.Aggregate.MAX, columnName, table, null), type);
+    }
+
+    /**
+     * Get min value in the given column and given table of database
+     * @param columnName The column to get min value
+     * @param table The table to get data
+     * @param type The class of value
+     * @param <T> The type of value
+     * @return Min value or null if the table is empty
+     */
+    public <T> T getMin(String columnName, String table, Class<T> type) {
+        return queryValue(queryBuilder.aggregate(QueryBuilder.Aggregate.MIN, columnName, table, null), type);
+    }
+
+    /**
+     * Count rows matching the conditions
+     * @param table The table to count rows
+     * @param conditions Conditions with "?" placeholders, may be null to count all the rows
+     * @param params Values bound to the placeholders in the given order
+     * @return Number of rows or -1 if the query can't be executed
+     */
+    public long count(String table, String conditions, Object... params) {
+        Long count = queryValue(queryBuilder.count(table, conditions), Long.class, params);
+        return count == null ? -1 : count;
+    }
+
+    /**
+     * Check if any row matches the conditions. Database stops at the first matched row
+     * @param table The table to check
+     * @param conditions Conditions with "?" placeholders, may be null to check the whole table
+     * @param params Values bound to the placeholders in the given order
+     * @return True - if at least one row matches, False - if not
+     */
+    public boolean exists(String table, String conditions, Object... params) {
+        String sqlQuery = queryBuilder.exists(table, conditions);
+        boolean cond = false;
         try {
-            if (rs.first()) {
-                max = rs.getObject(String.format("max(%1$s)", columnName));
-            }
+            LOGGER.info(String.format("Getting data from database with next query: \"%1$s\" %2$s", sqlQuery, Arrays.toString(params)));
+            cond = executeQuery(sqlQuery, params).next();
         } catch (SQLException ex) {
-            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
+            LOGGER.error(String.format("%1$s: \"%2$s\"%n%3$s", ERROR_MSG, sqlQuery, ex.getMessage()));
         }
-        return max;
+        return cond;
     }
 
     /**
@@ -165,16 +414,19 @@ public class DataBaseManager {
      * @return First value
      */
     public Object getFirst(String columnName, String table, String conditions) {
-        Object first = null;
-        selectQuery(columnName, table, conditions);
-        try {
-            if (rs.first()) {
-                first = rs.getObject(columnName);
-            }
-        } catch (SQLException ex) {
-            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
-        }
-        return first;
+        return getFirst(columnName, table, conditions, new Object[0]);
+    }
+
+    /**
+     * Get first value of the parameterized sql query
+     * @param columnName The column to get data
+     * @param table The table to get data
+     * @param conditions Conditions with "?" placeholders
+     * @param params Values bound to the placeholders in the given order
+     * @return First value
+     */
+    public Object getFirst(String columnName, String table, String conditions, Object... params) {
+        return queryValue(queryBuilder.top(columnName, table, conditions, null, 1), Object.class, params);
     }
 
     /**
@@ -183,13 +435,7 @@ public class DataBaseManager {
      * @return True - if the table is empty, False - if not
      */
     public boolean isEmpty(String table) {
-        boolean cond = false;
-        try {
-            cond = !selectQuery(table).next();
-        } catch (SQLException ex) {
-            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
-        }
-        return cond;
+        return !exists(table, null);
     }
 
     /**
@@ -200,13 +446,19 @@ public class DataBaseManager {
      * @return True - if the query is empty, False - if not
      */
     public boolean isEmpty(String  columnName, String table, String conditions) {
-        boolean cond = false;
-        try {
-            cond = !selectQuery(columnName, table, conditions).next();
-        } catch (SQLException ex) {
-            LOGGER.error(String.format(ERROR_FORMAT, ERROR_MSG, ex.getMessage()));
-        }
-        return cond;
+        return !exists(table, conditions);
+    }
+
+    /**
+     * Check if the specified parameterized query return empty ResultSet
+     * @param columnName The column to get data
+     * @param table The table to get data
+     * @param conditions Conditions with "?" placeholders
+     * @param params Values bound to the placeholders in the given order
+     * @return True - if the query is empty, False - if not
+     */
+    public boolean isEmpty(String columnName, String table, String conditions, Object... params) {
+        return !exists(table, conditions, params);
     }
 
     /**
@@ -214,27 +466,127 @@ public class DataBaseManager {
      * @param columnName The column to get data
      * @param table The table to get data
      * @param numRows number of top rows to select
+     * @return ResultSet, contains of top n rows
      */
-    public void selectTopRows(String columnName, String table, int numRows) {
-        selectQuery(columnName, String.format("%1$s LIMIT %2$s", table, numRows));
+    public ResultSet selectTopRows(String columnName, String table, int numRows) {
+        return selectTopRows(columnName, table, null, null, numRows);
     }
 
     /**
-     * Set connection to database
+     * Select top n rows from query
+     * @param columnName The column to get data
+     * @param table The table to get data
+     * @param conditions Conditions with "?" placeholders, may be null
+     * @param orderBy Order of rows, may be null
+     * @param numRows number of top rows to select
+     * @param params Values bound to the placeholders in the given order
+     * @return ResultSet, contains of top n rows
      */
-    private static void setConnection() {
-        if (connection == null) {
-            String connectionString = fileManager.getProperties("connectionPath");
-            String login = fileManager.getProperties("user");
-            String password = fileManager.getProperties("password");
-            try {
-                LOGGER.info(String.format("Set connection to %1$s", connectionString));
-                connection = DriverManager.getConnection(connectionString, login, password);
+    public ResultSet selectTopRows(String columnName, String table, String conditions, String orderBy, int numRows, Object... params) {
+        String sqlQuery = queryBuilder.top(columnName, table, conditions, orderBy, numRows);
+        try {
+            LOGGER.info(String.format("Getting data from database with next query: \"%1$s\" %2$s", sqlQuery, Arrays.toString(params)));
+            rs.set(executeQuery(sqlQuery, params));
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("%1$s: \"%2$s\"%n%3$s", ERROR_MSG, sqlQuery, ex.getMessage()));
+        }
+        return rs.get();
+    }
 
-            } catch (SQLException ex) {
-                LOGGER.error(String.format("Can't get connection. Incorrect URL%n%1$s", ex.getMessage()));
+    /**
+     * Execute query returning single value
+     * @param sqlQuery The query to be executed
+     * @param type The class of value
+     * @param params Values bound to the "?" placeholders of the query
+     * @param <T> The type of value
+     * @return Value of the first column of the first row or null if there are no rows
+     */
+    private <T> T queryValue(String sqlQuery, Class<T> type, Object... params) {
+        String key = null;
+        long generation = 0;
+        if (queryCache != null) {
+            key = QueryCache.key(type.getName(), sqlQuery, params);
+            Object cached = queryCache.get(key);
+            if (cached != null) {
+                return type.cast(cached);
             }
+            generation = queryCache.generation();
         }
-        LOGGER.info("Connection is created successfully");
+        T value = null;
+        LOGGER.info(String.format("Getting data from database with next query: \"%1$s\" %2$s", sqlQuery, Arrays.toString(params)));
+        try (Connection connection = pool.acquire();
+             PreparedStatement statement = prepare(connection, sqlQuery, params);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (resultSet.next()) {
+                value = type == Object.class ? type.cast(resultSet.getObject(1)) : resultSet.getObject(1, type);
+            }
+            if (queryCache != null && value != null) {
+                queryCache.put(key, sqlQuery, value, generation);
+            }
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("%1$s: \"%2$s\"%n%3$s", ERROR_MSG, sqlQuery, ex.getMessage()));
+        }
+        return value;
+    }
+
+    /**
+     * Execute query on a leased connection and copy its result to a disconnected scrollable ResultSet.
+     * Statements are prepared through the connection statement cache, so repeated queries reuse parsed plans
+     * @param sqlQuery The query to be executed
+     * @param params Values bound to the "?" placeholders of the query
+     * @return Disconnected ResultSet
+     * @throws SQLException if the query can't be executed
+     */
+    private CachedRowSet executeQuery(String sqlQuery, Object... params) throws SQLException {
+        String key = null;
+        long generation = 0;
+        if (queryCache != null) {
+            key = QueryCache.key("rows", sqlQuery, params);
+            CachedRowSet cached = (CachedRowSet) queryCache.get(key);
+            if (cached != null) {
+                return cached.createCopy();
+            }
+            generation = queryCache.generation();
+        }
+        try (Connection connection = pool.acquire();
+             PreparedStatement statement = prepare(connection, sqlQuery, params);
+             ResultSet resultSet = statement.executeQuery()) {
+            CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+            rowSet.populate(resultSet);
+            if (queryCache != null) {
+                queryCache.put(key, sqlQuery, rowSet.createCopy(), generation);
+            }
+            return rowSet;
+        }
+    }
+
+    /**
+     * Execute update on a leased connection
+     * @param sqlQuery The query to be executed
+     * @param params Values bound to the "?" placeholders of the query
+     * @throws SQLException if the query can't be executed
+     */
+    private void executeUpdate(String sqlQuery, Object... params) throws SQLException {
+        try (Connection connection = pool.acquire();
+             PreparedStatement statement = prepare(connection, sqlQuery, params)) {
+            statement.executeUpdate();
+        } finally {
+            if (queryCache != null) {
+                queryCache.invalidate(sqlQuery);
+            }
+        }
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sqlQuery, Object... params) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sqlQuery);
+        try {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+        return statement;
     }
 }
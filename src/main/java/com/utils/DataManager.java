@@ -1,16 +1,23 @@
 package com.utils;
 
-import org.apache.commons.lang3.RandomStringUtils;
+import com.utils.config.Configuration;
+import com.utils.data.DatasetSchema;
+import com.utils.data.DatasetWriter;
+import com.utils.data.Numbers;
+import com.utils.data.RandomSource;
+import com.utils.data.Sampling;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
 
 /**
- * Class for generate and manipulate with different kind of data
+ * Class for generate and manipulate with different kind of data.
+ * Random data comes from the generator of the current thread, see {@link RandomSource} to reproduce it by the seed
  */
 public class DataManager {
 
@@ -22,7 +29,7 @@ public class DataManager {
      * @return Random String
      */
     public static String getRandomString(int length) {
-        return RandomStringUtils.randomAlphabetic(length);
+        return RandomSource.nextString(length, RandomSource.ALPHABETIC);
     }
 
     /**
@@ -31,7 +38,7 @@ public class DataManager {
      * @return Random number
      */
     public static int getRandomNumber(int range) {
-        return new Random().nextInt(range);
+        return RandomSource.nextInt(range);
     }
 
     /**
@@ -41,7 +48,17 @@ public class DataManager {
      * @return Random number
      */
     public static String getRandNumber(int length) {
-        return RandomStringUtils.randomNumeric(length);
+        return RandomSource.nextString(length, RandomSource.NUMERIC);
+    }
+
+    /**
+     * Generate random String lines at once
+     * @param count The number of generated Strings
+     * @param length The length of each String
+     * @return List of random Strings
+     */
+    public static List<String> getRandomStrings(int count, int length) {
+        return RandomSource.nextStrings(count, length, RandomSource.ALPHABETIC);
     }
 
     /**
@@ -55,7 +72,26 @@ public class DataManager {
                 getRandomString(length / 2 - 1),
                 getRandomNumber(length / 2 - 1),
                 getRandomString(1).toUpperCase(),
-                RandomStringUtils.random(1, 33, 47, false, false));
+                (char) (33 + RandomSource.nextInt(14)));
+    }
+
+    /**
+     * Generate the synthetic dataset and write it to the file. The rows are generated on data.dataset.threads threads
+     * (all the cores by default) in parts of data.dataset.partRows rows, the file is the same for the same seed
+     * @param schema The schema of the dataset
+     * @param file The file to write, it is overwritten
+     * @param format CSV or NDJSON
+     * @return The number of written bytes or -1 if the dataset can't be written
+     */
+    public static long writeDataset(DatasetSchema schema, String file, DatasetWriter.Format format) {
+        Configuration config = ConfigManager.getInstance().getConfiguration();
+        try {
+            return new DatasetWriter(config.getInt("data.dataset.threads", Runtime.getRuntime().availableProcessors()),
+                    config.getInt("data.dataset.partRows", 65536)).write(schema, Paths.get(file), format);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return -1;
     }
 
     /**
@@ -93,16 +129,57 @@ public class DataManager {
     }
 
     /**
-     * Get random elements from the list
-     * @param lst List to get elements from
+     * Check if the numbers are sorted ascending. Large arrays are checked on all the cores
+     * @param values The numbers to check
+     * @return true - if the numbers are sorted. Otherwise false
+     */
+    public static boolean isSorted(double[] values) {
+        return Numbers.isSorted(values, true, false);
+    }
+
+    /**
+     * Check if the numbers are sorted ascending. Large arrays are checked on all the cores
+     * @param values The numbers to check
+     * @return true - if the numbers are sorted. Otherwise false
+     */
+    public static boolean isSorted(long[] values) {
+        return Numbers.isSorted(values, true, false);
+    }
+
+    /**
+     * Get random elements from the list. Only the selected elements are visited for random access lists,
+     * so the cost doesn't depend on the size of the list
+     * @param lst List to get elements from, it is not modified
      * @param n Number of elements to get random. n <= lst.size()
      * @param <T> The type of objects in the list
-     * @return List of random elements selected from lst
+     * @return New list of random elements selected from lst in random order
      */
     public static <T> List<T> getRandomList(List<T> lst, int n) {
-        List<T> copy = new LinkedList<>(lst);
-        Collections.shuffle(copy);
-        return copy.subList(0, n);
+        return Sampling.sample(lst, n, RandomSource.current());
+    }
+
+    /**
+     * Get random elements from the stream of unknown length, e.g. a stream of rows. The stream is read once,
+     * only n elements are held in memory
+     * @param stream Stream to get elements from
+     * @param n Number of elements to get random
+     * @param <T> The type of objects in the stream
+     * @return List of min(n, stream length) random elements in random order
+     */
+    public static <T> List<T> getRandomFromStream(Stream<T> stream, int n) {
+        return Sampling.sample(stream.iterator(), n, RandomSource.current());
+    }
+
+    /**
+     * Get random elements from the list, the chance of an element to be selected is proportional to its weight
+     * @param lst List to get elements from
+     * @param weight The weight of an element, elements with zero weight are never selected
+     * @param n Number of elements to get random
+     * @param <T> The type of objects in the list
+     * @return List of min(n, number of elements with positive weight) random elements
+     */
+    public static <T> List<T> getWeightedRandomList(List<T> lst, ToDoubleFunction<? super T> weight, int n) {
+        return Sampling.weighted(lst, weight, n, RandomSource.current());
     }
 
     /**
@@ -113,7 +190,7 @@ public class DataManager {
      * @return Random element
      */
     public static <T> T getRandomFromList(List<T> elements) {
-        return elements.get(new Random().nextInt(elements.size()));
+        return elements.get(RandomSource.nextInt(elements.size()));
     }
 
     /**
@@ -127,4 +204,24 @@ public class DataManager {
         listString.forEach(str -> listDouble.add(Double.parseDouble(str)));
         return listDouble;
     }
+
+    /**
+     * Parses 'String' values from the List<String> to the array of 'double' values without boxing
+     *
+     * @param listString List<String> to parse
+     * @return double[]
+     */
+    public static double[] convertListStringToDoubleArray(List<String> listString) {
+        return Numbers.parseDoubles(listString);
+    }
+
+    /**
+     * Parses 'String' values from the List<String> to the array of 'long' values without boxing
+     *
+     * @param listString List<String> to parse
+     * @return long[]
+     */
+    public static long[] convertListStringToLongArray(List<String> listString) {
+        return Numbers.parseLongs(listString);
+    }
 }
@@ -3,28 +3,29 @@ package com.utils;
 import aquality.selenium.core.logging.Logger;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class for working with files and streams
  */
 public class FileManager {
     private static FileManager instance;
-    private final Properties properties = new Properties();
     private final Logger logger = Logger.getInstance();
+    private final Map<String, String> sqlTemplates = new ConcurrentHashMap<>();
 
     private FileManager() {}
 
-    public static FileManager getInstance() {
+    public static synchronized FileManager getInstance() {
         if (instance == null) {
             instance = new FileManager();
         }
@@ -63,7 +64,23 @@ public class FileManager {
         return ps;
     }
 
+    /**
+     * Get SQL query template from resources. Templates are read from disk once and cached
+     * @param src Path to the .sql file in resources
+     * @return SQL query template
+     */
     public String getSQLQuery(String src) {
+        String query = sqlTemplates.get(src);
+        if (query == null) {
+            query = readSQLQuery(src);
+            if (!query.isEmpty()) {
+                sqlTemplates.putIfAbsent(src, query);
+            }
+        }
+        return query;
+    }
+
+    private String readSQLQuery(String src) {
         StringBuilder query = new StringBuilder();
         try (BufferedReader bufferedReader = new BufferedReader(new FileReader(getResourcePath(src)))) {
             String line;
@@ -79,12 +96,17 @@ public class FileManager {
     /**
      * Get path in String format to resources files or directories
      * @param file The file or directory to find path to
-     * @return path to file or directory
+     * @return path to file or directory or null if there is no such resource
      */
     public String getResourcePath(String file) {
         String path = null;
+        URL resource = getClass().getClassLoader().getResource(file);
+        if (resource == null) {
+            logger.error(String.format("Resource %s is not found", file));
+            return null;
+        }
         try {
-            path = new File(Objects.requireNonNull(getClass().getClassLoader().getResource(file)).toURI()).getPath();
+            path = new File(resource.toURI()).getPath();
         } catch (URISyntaxException ex) {
             logger.error(ex.getMessage());
         }
@@ -106,24 +128,12 @@ public class FileManager {
     }
 
     /**
-     * Get value from .properties file
+     * Get value from .properties file.
+     * The file is loaded once, see {@link ConfigManager}
      * @param key The key to get value
      * @return The value of .properties file in String format
      */
     public String getProperties(String key) {
-        loadFile("config.properties");
-        return properties.getProperty(key);
-    }
-
-    /**
-     * Load properties from custom file to Properties object
-     * @param src File, contains properties to load
-     */
-    private void loadFile(String src) {
-        try (FileInputStream fileInputStream = new FileInputStream(getResourcePath(src))) {
-            properties.load(fileInputStream);
-        } catch (IOException ex) {
-            logger.error(String.format("File %s is not found%n%s", src, ex.getMessage()));
-        }
+        return ConfigManager.getInstance().getConfiguration().getString(key);
     }
 }
@@ -3,31 +3,58 @@ package com.utils;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.utils.json.DocumentCache;
+import com.utils.json.JsonComparator;
+import com.utils.json.JsonDifference;
+import com.utils.json.JsonStreams;
+import com.utils.json.SharedGson;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
-import java.util.Objects;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
- * Class for working with JSON files and Objects
+ * Class for working with JSON files and Objects.
+ * Parsed files are cached until they are changed. The size of the cache is set by json.cache.maxSizeMb (0 to disable),
+ * it limits the estimated heap size of the parsed trees, which is several times larger than the size of the files
  */
 public class JsonManager {
-    private static final Gson g = new Gson();
+    private static final Gson g = SharedGson.get();
+    private static final Charset CHARSET = Charset.forName("windows-1251");
+    private static final DocumentCache documents = new DocumentCache(
+            ConfigManager.getInstance().getConfiguration().getInt("json.cache.maxSizeMb", 256) * 1024L * 1024L);
 
     private JsonManager() {}
 
     /**
      * Read JSON file and convert it to JsonElement
      * @param file File to be read
-     * @return JsonElement representation of JSON file
+     * @return JsonElement representation of JSON file. It is a copy, so it can be modified without affecting the cache
      */
     public static JsonElement readJSON(String file) {
-        try(FileReader reader = new FileReader(FileManager.getInstance().getResourcePath(file), Charset.forName("windows-1251"))) {
-            return JsonParser.parseReader(reader);
-        } catch (Exception ex) {
-            ex.printStackTrace();
-        }
-        return null;
+        JsonElement document = document(file);
+        return document == null ? null : document.deepCopy();
+    }
+
+    /**
+     * Read JSON file and convert it to JsonElement without copying the cached tree
+     * @param file File to be read
+     * @return JsonElement representation of JSON file. It is shared with the cache and other callers, so it must not be modified
+     */
+    public static JsonElement readSharedJSON(String file) {
+        return document(file);
     }
 
     /**
@@ -38,7 +65,7 @@ public class JsonManager {
      * @return Object of type T
      */
     public static <T> T convertToObject(String file, Type type) {
-        return g.fromJson(readJSON(file), type);
+        return g.fromJson(document(file), type);
     }
 
     /**
@@ -49,19 +76,171 @@ public class JsonManager {
      * @return Object of type T
      */
     public static <T> T convertToObject(String file, Class<T> tClass) {
-        return g.fromJson(readJSON(file), tClass);
+        return g.fromJson(document(file), tClass);
     }
 
     /**
-     * Partial deserialization of JSON file to Object by the given key
+     * Partial deserialization of JSON file to Object by the given key.
+     * Unless the file is already cached, it is read incrementally and only the value of the key is built
      * @param file JSON file to be deserialized
      * @param tClass The class of T
      * @param key The key to get the partial deserialization of JSON file
      * @param <T> The desired type of Object to be obtained
-     * @return Object of type T
+     * @return Object of type T or null if there is no such key
      */
     public static <T> T partialConvertToObject(String file, Class<T> tClass, String key) {
-        JsonElement element = Objects.requireNonNull(readJSON(file)).getAsJsonObject().get(key);
-        return g.fromJson(element, tClass);
+        return read(file, Collections.singletonList(key), tClass);
+    }
+
+    /**
+     * Partial deserialization of JSON file to Object by the path.
+     * Unless the file is already cached, it is read incrementally, skipping unrelated values, and only the value by the path is built
+     * @param file JSON file to be deserialized
+     * @param path Keys and indexes separated by dots, e.g. "data.items[2]"
+     * @param type The specific genericized type of value
+     * @param <T> The desired type of Object to be obtained
+     * @return Object of type T or null if there is no such path
+     */
+    public static <T> T partialConvertToObject(String file, String path, Type type) {
+        return read(file, JsonStreams.parsePath(path), type);
+    }
+
+    /**
+     * Read newline-delimited JSON file value by value. Files larger than json.mmap.thresholdMb are memory-mapped
+     * @param file File in resources or path to the file, in the charset of the other files read by this class
+     * @param type The specific genericized type of values
+     * @param parallel true - to decode the lines on all the cores. The order of values is kept only by ordered operations
+     * @param <T> The desired type of Object to be obtained
+     * @return Stream of values, empty if the file can't be read. Must be closed
+     */
+    public static <T> Stream<T> streamLines(String file, Type type, boolean parallel) {
+        return streamLines(file, CHARSET, type, parallel);
+    }
+
+    /**
+     * Read newline-delimited JSON file value by value. Files larger than json.mmap.thresholdMb are memory-mapped
+     * @param file File in resources or path to the file
+     * @param charset ASCII-compatible charset of the file, e.g. UTF-8
+     * @param type The specific genericized type of values
+     * @param parallel true - to decode the lines on all the cores. The order of values is kept only by ordered operations
+     * @param <T> The desired type of Object to be obtained
+     * @return Stream of values, empty if the file can't be read. Must be closed
+     */
+    public static <T> Stream<T> streamLines(String file, Charset charset, Type type, boolean parallel) {
+        try {
+            Path source = resolve(file);
+            return JsonStreams.streamLines(source, charset, g, type, isLarge(source), parallel);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Read JSON array of the file element by element. Only the current element is held in memory.
+     * Files larger than json.mmap.thresholdMb are memory-mapped
+     * @param file File in resources or path to the file, in the charset of the other files read by this class
+     * @param path Path to the array, e.g. "data.items". "$" for the top-level array
+     * @param type The specific genericized type of elements
+     * @param <T> The desired type of Object to be obtained
+     * @return Stream of elements, empty if the file can't be read or there is no array by the path. Must be closed
+     */
+    public static <T> Stream<T> streamArray(String file, String path, Type type) {
+        return streamArray(file, CHARSET, path, type);
+    }
+
+    /**
+     * Read JSON array of the file element by element. Only the current element is held in memory.
+     * Files larger than json.mmap.thresholdMb are memory-mapped
+     * @param file File in resources or path to the file
+     * @param charset Charset of the file
+     * @param path Path to the array, e.g. "data.items". "$" for the top-level array
+     * @param type The specific genericized type of elements
+     * @param <T> The desired type of Object to be obtained
+     * @return Stream of elements, empty if the file can't be read or there is no array by the path. Must be closed
+     */
+    public static <T> Stream<T> streamArray(String file, Charset charset, String path, Type type) {
+        try {
+            Path source = resolve(file);
+            return JsonStreams.streamArray(JsonStreams.openReader(source, charset, isLarge(source)), g, type, path);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    /**
+     * Compare JSON file with JSON string, e.g. the expected fixture with the body of a response.
+     * Both documents are read incrementally, so large payloads are not built into trees
+     * @param file The expected JSON file
+     * @param json The actual JSON
+     * @param comparator Comparison rules: ignored paths, unordered arrays, numeric tolerance
+     * @return Differences, empty if the documents are equal
+     * @throws UncheckedIOException if the file can't be read
+     * @throws com.google.gson.JsonSyntaxException if a document is not a valid JSON
+     */
+    public static List<JsonDifference> compareWithFile(String file, String json, JsonComparator comparator) {
+        String path = FileManager.getInstance().getResourcePath(file);
+        if (path == null) {
+            throw new UncheckedIOException(new FileNotFoundException(String.format("Resource %1$s is not found", file)));
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(path, CHARSET), 1 << 16)) {
+            return comparator.compare(reader, new StringReader(json));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Get the cache of parsed files
+     * @return Cache of parsed files
+     */
+    public static DocumentCache getDocumentCache() {
+        return documents;
+    }
+
+    private static Path resolve(String file) {
+        Path path = Paths.get(file);
+        return Files.isRegularFile(path) ? path : Paths.get(FileManager.getInstance().getResourcePath(file));
+    }
+
+    private static boolean isLarge(Path file) throws IOException {
+        return Files.size(file) >= ConfigManager.getInstance().getConfiguration().getInt("json.mmap.thresholdMb", 64) * 1024L * 1024L;
+    }
+
+    private static JsonElement document(String file) {
+        try {
+            File source = new File(FileManager.getInstance().getResourcePath(file));
+            long lastModified = source.lastModified();
+            long length = source.length();
+            JsonElement document = documents.get(source.toPath(), lastModified, length);
+            if (document == null) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(source, CHARSET), 1 << 16)) {
+                    document = JsonParser.parseReader(reader);
+                }
+                documents.put(source.toPath(), lastModified, length, document);
+            }
+            return document;
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return null;
+    }
+
+    private static <T> T read(String file, List<Object> segments, Type type) {
+        try {
+            File source = new File(FileManager.getInstance().getResourcePath(file));
+            JsonElement document = documents.peek(source.toPath(), source.lastModified(), source.length());
+            if (document != null) {
+                return g.fromJson(JsonStreams.select(document, segments), type);
+            }
+            try (JsonReader reader = new JsonReader(new BufferedReader(new FileReader(source, CHARSET), 1 << 16))) {
+                reader.setLenient(true);
+                return JsonStreams.seek(reader, segments) ? g.fromJson(reader, type) : null;
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        return null;
     }
 }
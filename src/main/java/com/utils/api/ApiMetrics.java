@@ -0,0 +1,230 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of per-endpoint API metrics: latency histogram, transferred bytes and errors
+ */
+public class ApiMetrics {
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "(?<=/)(\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{24,})(?=/|$)");
+    private final Logger logger = Logger.getInstance();
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Record the request
+     * @param method HTTP method
+     * @param path Path of the request, numeric and UUID segments are replaced by {id}
+     * @param micros Latency in microseconds
+     * @param statusCode Status code of the response, 0 if the request failed without response
+     * @param requestBytes Size of the request body, negative if unknown
+     * @param responseBytes Size of the response body, negative if unknown
+     */
+    public void record(String method, String path, long micros, int statusCode, long requestBytes, long responseBytes) {
+        String template = toTemplate(path);
+        Endpoint endpoint = endpoints.computeIfAbsent(method + " " + template, key -> new Endpoint(method, template));
+        endpoint.histogram.record(micros);
+        if (statusCode == 0 || statusCode >= 400) {
+            endpoint.errors.increment();
+        }
+        if (requestBytes > 0) {
+            endpoint.requestBytes.add(requestBytes);
+        }
+        if (responseBytes > 0) {
+            endpoint.responseBytes.add(responseBytes);
+        }
+    }
+
+    /**
+     * Get latency percentile of the endpoint
+     * @param method HTTP method
+     * @param path Path of the request
+     * @param percentile Percentile from 0 to 100
+     * @param minCount Min number of records to trust the percentile
+     * @return Latency in microseconds or -1 if the endpoint has fewer records
+     */
+    public long getPercentileMicros(String method, String path, double percentile, long minCount) {
+        Endpoint endpoint = endpoints.get(method + " " + toTemplate(path));
+        if (endpoint == null || endpoint.histogram.getCount() < minCount) {
+            return -1;
+        }
+        return endpoint.histogram.getPercentile(percentile);
+    }
+
+    /**
+     * Get snapshot of metrics of all the endpoints, sorted by the method and endpoint
+     * @return List of snapshots
+     */
+    public List<Snapshot> snapshot() {
+        return endpoints.values().stream()
+                .map(Snapshot::new)
+                .sorted(Comparator.comparing(Snapshot::getEndpoint).thenComparing(Snapshot::getMethod))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Forget all the recorded metrics
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Export snapshot to file. The format is selected by the extension: .csv or JSON otherwise
+     * @param file Path to the file
+     */
+    public void export(String file) {
+        Path path = Paths.get(file);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                if (file.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                    writer.write(Snapshot.CSV_HEADER);
+                    for (Snapshot snapshot : snapshot()) {
+                        writer.write(snapshot.toCsv());
+                    }
+                } else {
+                    new GsonBuilder().setPrettyPrinting().create().toJson(snapshot(), writer);
+                }
+            }
+            logger.info(String.format("API metrics are exported to %1$s", path.toAbsolutePath()));
+        } catch (IOException ex) {
+            logger.error(String.format("Can't export API metrics to %1$s%n%2$s", file, ex.getMessage()));
+        }
+    }
+
+    static String toTemplate(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        int query = path.indexOf('?');
+        String withoutQuery = query >= 0 ? path.substring(0, query) : path;
+        return ID_SEGMENT.matcher(withoutQuery).replaceAll("{id}");
+    }
+
+    private static final class Endpoint {
+        private final String method;
+        private final String template;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+
+        private Endpoint(String method, String template) {
+            this.method = method;
+            this.template = template;
+        }
+    }
+
+    /**
+     * Metrics of one endpoint at the moment of snapshot. Latencies are in milliseconds
+     */
+    public static final class Snapshot {
+        private static final String CSV_HEADER = "method,endpoint,count,errors,errorRate,meanMs,p50Ms,p90Ms,p99Ms,maxMs,requestBytes,responseBytes\n";
+        private final String method;
+        private final String endpoint;
+        private final long count;
+        private final long errors;
+        private final double errorRate;
+        private final double meanMs;
+        private final double p50Ms;
+        private final double p90Ms;
+        private final double p99Ms;
+        private final double maxMs;
+        private final long requestBytes;
+        private final long responseBytes;
+
+        private Snapshot(Endpoint source) {
+            LatencyHistogram histogram = source.histogram;
+            method = source.method;
+            endpoint = source.template;
+            count = histogram.getCount();
+            errors = source.errors.sum();
+            errorRate = count == 0 ? 0 : (double) errors / count;
+            meanMs = histogram.getMean() / 1000;
+            p50Ms = histogram.getPercentile(50) / 1000.0;
+            p90Ms = histogram.getPercentile(90) / 1000.0;
+            p99Ms = histogram.getPercentile(99) / 1000.0;
+            maxMs = histogram.getMax() / 1000.0;
+            requestBytes = source.requestBytes.sum();
+            responseBytes = source.responseBytes.sum();
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public double getMeanMs() {
+            return meanMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP90Ms() {
+            return p90Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public long getRequestBytes() {
+            return requestBytes;
+        }
+
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+
+        private String toCsv() {
+            return String.format(Locale.ROOT, "%1$s,\"%2$s\",%3$d,%4$d,%5$.4f,%6$.3f,%7$.3f,%8$.3f,%9$.3f,%10$.3f,%11$d,%12$d\n",
+                    method, endpoint.replace("\"", "\"\""), count, errors, errorRate, meanMs, p50Ms, p90Ms, p99Ms, maxMs, requestBytes, responseBytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%1$s %2$s: count=%3$d, errors=%4$d, p50=%5$.1fms, p90=%6$.1fms, p99=%7$.1fms, max=%8$.1fms",
+                    method, endpoint, count, errors, p50Ms, p90Ms, p99Ms, maxMs);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import com.google.gson.Gson;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Filter recording request-response pairs to the archive: one JSON line per pair, gzipped if the file name ends with .gz.
+ * The archive is replayed by {@link ReplayServer}
+ */
+public class ApiRecorder implements Filter, AutoCloseable {
+    static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "transfer-encoding", "connection", "keep-alive", "content-encoding", "date"));
+    private static final Gson GSON = new Gson();
+    private final Logger logger = Logger.getInstance();
+    private final Path archive;
+    private final Writer writer;
+    private long recorded;
+
+    /**
+     * Create the archive, replacing the existing one
+     * @param archive Path to the archive
+     * @throws IOException if the archive can't be created
+     */
+    public ApiRecorder(Path archive) throws IOException {
+        this.archive = archive;
+        if (archive.getParent() != null) {
+            Files.createDirectories(archive.getParent());
+        }
+        OutputStream out = Files.newOutputStream(archive);
+        if (archive.toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            out = new GZIPOutputStream(out, 1 << 16);
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        URI uri = URI.create(requestSpec.getURI());
+        List<String[]> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            if (!SKIPPED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                headers.add(new String[] {header.getName(), header.getValue()});
+            }
+        }
+        RecordedExchange exchange = new RecordedExchange(requestSpec.getMethod(), uri.getRawPath(), uri.getRawQuery(),
+                RecordedExchange.hash(requestBody(requestSpec)), response.statusCode(), headers, response.asByteArray());
+        write(exchange);
+        return response;
+    }
+
+    /**
+     * Get number of recorded pairs
+     * @return Number of pairs
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+            logger.info(String.format("%1$s API requests are recorded to %2$s", recorded, archive.toAbsolutePath()));
+        } catch (IOException ex) {
+            logger.error(String.format("Can't close API archive %1$s%n%2$s", archive, ex.getMessage()));
+        }
+    }
+
+    private synchronized void write(RecordedExchange exchange) {
+        try {
+            GSON.toJson(exchange, writer);
+            writer.write('\n');
+            recorded++;
+        } catch (IOException ex) {
+            logger.error(String.format("Can't write API archive %1$s%n%2$s", archive, ex.getMessage()));
+        }
+    }
+
+    private static byte[] requestBody(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body != null) {
+            return body.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        Map<String, String> form = new HashMap<>();
+        if (!requestSpec.getMethod().equals("GET")) {
+            form.putAll(requestSpec.getRequestParams());
+        }
+        form.putAll(requestSpec.getFormParams());
+        return form.isEmpty() ? new byte[0] : RecordedExchange.canonicalForm(form);
+    }
+}
@@ -0,0 +1,124 @@
+package com.utils.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Description of API request, used for asynchronous and bulk execution
+ */
+public final class ApiRequest {
+    private final String method;
+    private final String target;
+    private final Map<String, String> queryParams = new LinkedHashMap<>();
+    private final Map<String, String> formParams = new LinkedHashMap<>();
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private Object body;
+
+    private ApiRequest(String method, String target) {
+        this.method = method;
+        this.target = target;
+    }
+
+    /**
+     * Create GET request
+     * @param target URL of request
+     * @return New request
+     */
+    public static ApiRequest get(String target) {
+        return new ApiRequest("GET", target);
+    }
+
+    /**
+     * Create POST request
+     * @param target URL of request
+     * @return New request
+     */
+    public static ApiRequest post(String target) {
+        return new ApiRequest("POST", target);
+    }
+
+    /**
+     * Add query parameter
+     * @param key The key of parameter
+     * @param value The value of parameter
+     * @return This request
+     */
+    public ApiRequest queryParam(String key, String value) {
+        queryParams.put(key, value);
+        return this;
+    }
+
+    /**
+     * Add form parameters
+     * @param params Parameters in format key-value
+     * @return This request
+     */
+    public ApiRequest params(Map<String, String> params) {
+        formParams.putAll(params);
+        return this;
+    }
+
+    /**
+     * Add header
+     * @param name The name of header
+     * @param value The value of header
+     * @return This request
+     */
+    public ApiRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    /**
+     * Set object to be sent as JSON body
+     * @param body The object to be sent
+     * @return This request
+     */
+    public ApiRequest body(Object body) {
+        this.body = body;
+        return this;
+    }
+
+    /**
+     * Create a copy of the request, which can be changed without affecting this one
+     * @return New request
+     */
+    public ApiRequest copy() {
+        ApiRequest copy = new ApiRequest(method, target);
+        copy.queryParams.putAll(queryParams);
+        copy.formParams.putAll(formParams);
+        copy.headers.putAll(headers);
+        copy.body = body;
+        return copy;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Map<String, String> getQueryParams() {
+        return Collections.unmodifiableMap(queryParams);
+    }
+
+    public Map<String, String> getFormParams() {
+        return Collections.unmodifiableMap(formParams);
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    public Object getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%1$s %2$s", method, target);
+    }
+}
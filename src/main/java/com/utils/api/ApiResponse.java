@@ -0,0 +1,111 @@
+package com.utils.api;
+
+import io.restassured.response.Response;
+import java.util.List;
+
+/**
+ * Response of one API request. Each request gets its own instance, so it can be safely shared between threads.
+ * The body is parsed at most once, see {@link JsonView}
+ */
+public final class ApiResponse {
+    private final Response response;
+    private final JsonView view;
+
+    /**
+     * Wrap the response. The body is read at once, so the pooled connection is released before the response is used
+     * @param response RestAssured response
+     */
+    public ApiResponse(Response response) {
+        this.response = response;
+        this.view = new JsonView(response.asString());
+    }
+
+    /**
+     * Get the status code of request
+     * @return Status code
+     */
+    public int getStatusCode() {
+        return response.statusCode();
+    }
+
+    /**
+     * Get the Content type of the request
+     * @return String representation of Content type
+     */
+    public String getContentType() {
+        return response.contentType().split(";")[0];
+    }
+
+    /**
+     * Get the value of response header
+     * @param name The name of header
+     * @return The value of header or null if there is no such header
+     */
+    public String getHeader(String name) {
+        return response.header(name);
+    }
+
+    /**
+     * Get the request body from the API server
+     * @return The String, that represents the request body
+     */
+    public String getBody() {
+        return view.getBody();
+    }
+
+    /**
+     * Converting response to T class object
+     * @param cl The class of T
+     * @param <T> The type of object
+     * @return T object
+     */
+    public <T> T as(Class<T> cl) {
+        return response.as(cl);
+    }
+
+    /**
+     * Get the list of some value from response
+     * @param target The path to get list of values
+     * @param <T> The type of value
+     * @return List of values by path "target"
+     */
+    public <T> List<T> getList(String target) {
+        return view.getList(target);
+    }
+
+    /**
+     * Getting value from the response by the path
+     * @param path The path to get value of
+     * @param <T> The type of return value
+     * @return The value by the path
+     */
+    public <T> T getValue(String path) {
+        return view.get(path);
+    }
+
+    /**
+     * Converting response to list of T objects
+     * @param cl The class of T
+     * @param <T> The type of objects
+     * @return List of T objects
+     */
+    public <T> List<T> getListOfObjects(Class<T> cl) {
+        return view.getList("$", cl);
+    }
+
+    /**
+     * Get the parse-once view of the body
+     * @return JSON view of the body
+     */
+    public JsonView getJsonView() {
+        return view;
+    }
+
+    /**
+     * Get the underlying RestAssured response
+     * @return Response
+     */
+    public Response getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,158 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests asynchronously with a limit of concurrent requests per host.
+ * Virtual threads are used on the runtimes that support them
+ */
+public class AsyncExecutor implements AutoCloseable {
+    private final Logger logger = Logger.getInstance();
+    private final ExecutorService executor;
+    private final int maxPerHost;
+    private final Map<String, HostQueue> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads Number of platform threads, used if virtual threads are not supported or not preferred
+     * @param maxPerHost Max number of concurrent requests to one host
+     * @param preferVirtualThreads true - to use virtual threads if the runtime supports them
+     */
+    public AsyncExecutor(int threads, int maxPerHost, boolean preferVirtualThreads) {
+        if (threads < 1 || maxPerHost < 1) {
+            throw new IllegalArgumentException(String.format("Incorrect async settings: threads=%1$s, maxPerHost=%2$s", threads, maxPerHost));
+        }
+        ExecutorService virtual = preferVirtualThreads ? virtualThreadExecutor() : null;
+        if (virtual != null) {
+            executor = virtual;
+            logger.info("Asynchronous requests are executed on virtual threads");
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "api-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     * Run the task, holding a permit of the host while it is executed. The permit is taken before the task
+     * is handed to the pool, so tasks waiting for a busy host don't occupy the threads needed by other hosts
+     * @param host The host the task sends request to
+     * @param task The task to run
+     * @param <T> The type of task result
+     * @return Future of the task result
+     */
+    public <T> CompletableFuture<T> submit(String host, Supplier<T> task) {
+        HostQueue queue = hosts.computeIfAbsent(host.toLowerCase(Locale.ROOT), h -> new HostQueue());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queue.submit(result, () -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            } finally {
+                queue.next();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Get the host of URL. Relative URLs are resolved against the base URL
+     * @param baseUrl The base URL
+     * @param target Absolute or relative URL
+     * @return The host with port
+     */
+    public static String hostOf(String baseUrl, String target) {
+        try {
+            URI uri = URI.create(target);
+            if (!uri.isAbsolute()) {
+                uri = URI.create(baseUrl);
+            }
+            return uri.getPort() == -1 ? String.valueOf(uri.getHost()) : uri.getHost() + ":" + uri.getPort();
+        } catch (IllegalArgumentException ex) {
+            return String.valueOf(baseUrl);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Requests of one host: up to maxPerHost are in the pool, the rest wait in the queue without holding threads
+     */
+    private final class HostQueue {
+        private final Deque<Job> waiting = new ArrayDeque<>();
+        private int active;
+
+        private void submit(CompletableFuture<?> result, Runnable task) {
+            Job job = new Job(result, task);
+            synchronized (this) {
+                if (active >= maxPerHost) {
+                    waiting.add(job);
+                    return;
+                }
+                active++;
+            }
+            execute(job);
+        }
+
+        private void next() {
+            Job job;
+            synchronized (this) {
+                job = waiting.poll();
+                if (job == null) {
+                    active--;
+                    return;
+                }
+            }
+            execute(job);
+        }
+
+        private void execute(Job job) {
+            try {
+                executor.execute(job.task);
+            } catch (RejectedExecutionException ex) {
+                job.result.completeExceptionally(ex);
+                next();
+            }
+        }
+    }
+
+    /**
+     * Task and the future completed by it
+     */
+    private static final class Job {
+        private final CompletableFuture<?> result;
+        private final Runnable task;
+
+        private Job(CompletableFuture<?> result, Runnable task) {
+            this.result = result;
+            this.task = task;
+        }
+    }
+}
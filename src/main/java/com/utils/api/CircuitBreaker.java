@@ -0,0 +1,72 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+
+/**
+ * Circuit breaker of one host. It opens after the number of consecutive failures,
+ * rejects requests while open and lets one trial request through after the open duration
+ */
+public class CircuitBreaker {
+    private final Logger logger = Logger.getInstance();
+    private final String host;
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String host, int failureThreshold, long openMillis) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000;
+    }
+
+    /**
+     * Check if the request can be sent
+     * @throws IllegalStateException if the circuit is open
+     */
+    public synchronized void acquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+            logger.info(String.format("Circuit of %1$s is half-open, sending trial request", host));
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+            throw new IllegalStateException(String.format("Circuit of %1$s is open, request is rejected", host));
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info(String.format("Circuit of %1$s is closed", host));
+        }
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+            logger.error(String.format("Circuit of %1$s is open after %2$s consecutive failures", host, failures));
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * States of the circuit
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
@@ -0,0 +1,515 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import com.google.gson.Gson;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Client-side cache of GET responses honoring Cache-Control, Expires, ETag and Last-Modified.
+ * Fresh responses are served from the cache, stale ones are revalidated with If-None-Match and If-Modified-Since.
+ * Responses are kept in memory up to the size limit and, if the directory is set, on disk.
+ * The cache is shared, so private responses are not stored, and responses to requests with Authorization are stored
+ * only if they are explicitly allowed by public, s-maxage or must-revalidate (RFC 9111, section 3.5)
+ */
+public class HttpCache {
+    private static final Gson GSON = new Gson();
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String AUTHORIZATION = "Authorization";
+    private final Logger logger = Logger.getInstance();
+    private final long maxBytes;
+    private final Path directory;
+    private final Map<String, CachedResponse> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long size;
+
+    /**
+     * @param maxBytes Max approximate size of the responses kept in memory
+     * @param directory Directory to keep the responses on disk, null to keep them in memory only
+     */
+    public HttpCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException ex) {
+                logger.error(String.format("Can't create HTTP cache directory %1$s%n%2$s", directory, ex.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Build the cache key of the request sent without credentials other than its own headers
+     * @param baseUrl The base URL the relative targets are resolved against
+     * @param request The request
+     * @return Cache key
+     */
+    public static String key(String baseUrl, ApiRequest request) {
+        return key(baseUrl, request, null);
+    }
+
+    /**
+     * Build the cache key. Requests with different credentials get different keys, only a hash of credentials is kept in the key
+     * @param baseUrl The base URL the relative targets are resolved against
+     * @param request The request
+     * @param credentials Credentials added to the request by the sender, e.g. the token of the request specification, null if none
+     * @return Cache key
+     */
+    public static String key(String baseUrl, ApiRequest request, String credentials) {
+        String target = request.getTarget().contains("://") ? request.getTarget() : baseUrl + request.getTarget();
+        String key = String.format("%1$s %2$s %3$s", request.getMethod(), target, new TreeMap<>(request.getQueryParams()));
+        String authorization = authorization(request, credentials);
+        return authorization == null ? key : String.format("%1$s auth:%2$s", key, sha256(authorization));
+    }
+
+    /**
+     * Get the response from the cache or send the request without credentials other than its own headers
+     * @param key Cache key, see {@link #key(String, ApiRequest)}
+     * @param request GET request
+     * @param sender Function sending the request
+     * @return Cached, revalidated or new response
+     */
+    public ApiResponse execute(String key, ApiRequest request, Function<ApiRequest, ApiResponse> sender) {
+        return execute(key, request, null, sender);
+    }
+
+    /**
+     * Get the response from the cache or send the request, revalidating the stale response if possible
+     * @param key Cache key, see {@link #key(String, ApiRequest, String)}
+     * @param request GET request
+     * @param credentials Credentials added to the request by the sender, null if none. Responses to authorized requests
+     *                    are stored only if they are public
+     * @param sender Function sending the request
+     * @return Cached, revalidated or new response
+     */
+    public ApiResponse execute(String key, ApiRequest request, String credentials, Function<ApiRequest, ApiResponse> sender) {
+        Directives requestDirectives = new Directives(CachedResponse.headerOf(request, CACHE_CONTROL));
+        if (requestDirectives.noStore) {
+            misses.incrementAndGet();
+            return sender.apply(request);
+        }
+        CachedResponse cached = lookup(key);
+        if (cached != null && !cached.matches(request)) {
+            cached = null;
+        }
+        if (cached != null && !requestDirectives.noCache && cached.freshUntil > System.currentTimeMillis()) {
+            hits.incrementAndGet();
+            return cached.toApiResponse();
+        }
+        ApiRequest conditional = request;
+        if (cached != null && (cached.etag != null || cached.lastModified != null)) {
+            conditional = request.copy();
+            if (cached.etag != null) {
+                conditional.header("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                conditional.header("If-Modified-Since", cached.lastModified);
+            }
+        }
+        ApiResponse response = sender.apply(conditional);
+        if (response.getStatusCode() == 304 && cached != null) {
+            revalidations.incrementAndGet();
+            CachedResponse refreshed = cached.refresh(response);
+            if (refreshed == null) {
+                remove(key);
+                return cached.toApiResponse();
+            }
+            store(key, refreshed);
+            return refreshed.toApiResponse();
+        }
+        misses.incrementAndGet();
+        CachedResponse fresh = CachedResponse.of(response, request, authorization(request, credentials) != null);
+        if (fresh != null) {
+            store(key, fresh);
+        } else if (cached != null) {
+            remove(key);
+        }
+        return response;
+    }
+
+    /**
+     * Remove all the responses from memory and disk
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.toString().endsWith(".json")).forEach(file -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ex) {
+                        logger.error(ex.getMessage());
+                    }
+                });
+            } catch (IOException ex) {
+                logger.error(ex.getMessage());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get number of stale responses confirmed by the server with 304 Not Modified
+     * @return Number of revalidations
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Get ratio of the requests served without downloading the body: fresh hits and revalidations
+     * @return Hit ratio from 0 to 1
+     */
+    public double getHitRatio() {
+        long served = hits.get() + revalidations.get();
+        long total = served + misses.get();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HttpCache[size=%1$s, hits=%2$s, misses=%3$s, revalidations=%4$s, evictions=%5$s]",
+                size(), getHits(), getMisses(), getRevalidations(), getEvictions());
+    }
+
+    private CachedResponse lookup(String key) {
+        synchronized (this) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null || directory == null) {
+                return cached;
+            }
+        }
+        Path file = fileOf(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CachedResponse cached = GSON.fromJson(reader, CachedResponse.class);
+            if (cached == null || !key.equals(cached.key)) {
+                return null;
+            }
+            putInMemory(key, cached);
+            return cached;
+        } catch (IOException | RuntimeException ex) {
+            logger.error(String.format("Can't read HTTP cache file %1$s%n%2$s", file, ex.getMessage()));
+            return null;
+        }
+    }
+
+    private void store(String key, CachedResponse cached) {
+        cached.key = key;
+        putInMemory(key, cached);
+        if (directory == null) {
+            return;
+        }
+        Path file = fileOf(key);
+        try {
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(cached, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.error(String.format("Can't write HTTP cache file %1$s%n%2$s", file, ex.getMessage()));
+        }
+    }
+
+    private synchronized void putInMemory(String key, CachedResponse cached) {
+        CachedResponse previous = entries.put(key, cached);
+        size += cached.weight() - (previous == null ? 0 : previous.weight());
+        while (size > maxBytes && !entries.isEmpty()) {
+            Map.Entry<String, CachedResponse> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            size -= eldest.getValue().weight();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            CachedResponse previous = entries.remove(key);
+            if (previous != null) {
+                size -= previous.weight();
+            }
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(fileOf(key));
+            } catch (IOException ex) {
+                logger.error(ex.getMessage());
+            }
+        }
+    }
+
+    private static String authorization(ApiRequest request, String credentials) {
+        String header = CachedResponse.headerOf(request, AUTHORIZATION);
+        if (header != null) {
+            return header;
+        }
+        return credentials == null || credentials.isBlank() ? null : credentials;
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(sha256(key) + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Parsed Cache-Control header
+     */
+    private static final class Directives {
+        private boolean noStore;
+        private boolean noCache;
+        private boolean isPublic;
+        private boolean isPrivate;
+        private boolean mustRevalidate;
+        private long maxAge = -1;
+        private long sharedMaxAge = -1;
+
+        private Directives(String header) {
+            if (header == null) {
+                return;
+            }
+            for (String directive : header.toLowerCase(Locale.ROOT).split(",")) {
+                String[] pair = directive.trim().split("=", 2);
+                if (pair[0].equals("no-store")) {
+                    noStore = true;
+                } else if (pair[0].equals("no-cache")) {
+                    noCache = true;
+                } else if (pair[0].equals("public")) {
+                    isPublic = true;
+                } else if (pair[0].equals("private")) {
+                    isPrivate = true;
+                } else if (pair[0].equals("must-revalidate")) {
+                    mustRevalidate = true;
+                } else if ((pair[0].equals("max-age") || pair[0].equals("s-maxage")) && pair.length == 2) {
+                    try {
+                        long seconds = Long.parseLong(pair[1].replace("\"", "").trim());
+                        if (pair[0].equals("max-age")) {
+                            maxAge = seconds;
+                        } else {
+                            sharedMaxAge = seconds;
+                        }
+                    } catch (NumberFormatException ex) {
+                        noCache = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Response stored in the cache. Serialized to JSON for the disk store
+     */
+    private static final class CachedResponse {
+        private String key;
+        private int statusCode;
+        private String statusLine;
+        private List<String[]> headers;
+        private String body;
+        private long freshUntil;
+        private String etag;
+        private String lastModified;
+        private Map<String, String> vary;
+
+        private static CachedResponse of(ApiResponse response, ApiRequest request, boolean authorized) {
+            Directives directives = new Directives(response.getHeader(CACHE_CONTROL));
+            String varyHeader = response.getHeader("Vary");
+            if (response.getStatusCode() != 200 || directives.noStore || directives.isPrivate
+                    || (varyHeader != null && varyHeader.contains("*"))) {
+                return null;
+            }
+            if (authorized && !(directives.isPublic || directives.sharedMaxAge >= 0 || directives.mustRevalidate)) {
+                return null;
+            }
+            CachedResponse cached = new CachedResponse();
+            cached.statusCode = response.getStatusCode();
+            cached.statusLine = response.getResponse().getStatusLine();
+            cached.headers = new ArrayList<>();
+            for (Header header : response.getResponse().getHeaders()) {
+                cached.headers.add(new String[] {header.getName(), header.getValue()});
+            }
+            cached.body = response.getBody();
+            cached.etag = response.getHeader("ETag");
+            cached.lastModified = response.getHeader("Last-Modified");
+            cached.freshUntil = freshUntil(response, directives);
+            if (cached.freshUntil <= System.currentTimeMillis() && cached.etag == null && cached.lastModified == null) {
+                return null;
+            }
+            cached.vary = new TreeMap<>();
+            if (varyHeader != null) {
+                for (String name : varyHeader.split(",")) {
+                    if (!name.isBlank()) {
+                        cached.vary.put(name.trim().toLowerCase(Locale.ROOT), headerOf(request, name.trim()));
+                    }
+                }
+            }
+            return cached;
+        }
+
+        private CachedResponse refresh(ApiResponse notModified) {
+            String cacheControl = notModified.getHeader(CACHE_CONTROL);
+            Directives directives = new Directives(cacheControl == null ? headerValue(CACHE_CONTROL) : cacheControl);
+            if (directives.noStore || directives.isPrivate) {
+                return null;
+            }
+            CachedResponse refreshed = new CachedResponse();
+            refreshed.statusCode = statusCode;
+            refreshed.statusLine = statusLine;
+            refreshed.headers = new ArrayList<>(headers);
+            refreshed.body = body;
+            refreshed.vary = vary;
+            String etagHeader = notModified.getHeader("ETag");
+            refreshed.etag = etagHeader == null ? etag : etagHeader;
+            refreshed.lastModified = lastModified;
+            refreshed.freshUntil = freshUntil(notModified, directives);
+            return refreshed;
+        }
+
+        private boolean matches(ApiRequest request) {
+            if (vary == null) {
+                return true;
+            }
+            for (Map.Entry<String, String> entry : vary.entrySet()) {
+                String value = headerOf(request, entry.getKey());
+                if (value == null ? entry.getValue() != null : !value.equals(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ApiResponse toApiResponse() {
+            List<Header> list = new ArrayList<>();
+            for (String[] header : headers) {
+                list.add(new Header(header[0], header[1]));
+            }
+            ResponseBuilder builder = new ResponseBuilder()
+                    .setStatusCode(statusCode)
+                    .setStatusLine(statusLine)
+                    .setHeaders(new Headers(list))
+                    .setBody(body);
+            String contentType = headerValue("Content-Type");
+            if (contentType != null) {
+                builder.setContentType(contentType);
+            }
+            return new ApiResponse(builder.build());
+        }
+
+        private String headerValue(String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+
+        private long weight() {
+            long weight = 2L * body.length();
+            for (String[] header : headers) {
+                weight += 2L * (header[0].length() + header[1].length());
+            }
+            return weight;
+        }
+
+        private static long freshUntil(ApiResponse response, Directives directives) {
+            long now = System.currentTimeMillis();
+            if (directives.noCache) {
+                return now;
+            }
+            long maxAge = directives.sharedMaxAge >= 0 ? directives.sharedMaxAge : directives.maxAge;
+            if (maxAge >= 0) {
+                long age;
+                try {
+                    String ageHeader = response.getHeader("Age");
+                    age = ageHeader == null ? 0 : Long.parseLong(ageHeader.trim());
+                } catch (NumberFormatException ex) {
+                    age = 0;
+                }
+                return now + Math.max(0, maxAge - age) * 1000;
+            }
+            Long expires = parseDate(response.getHeader("Expires"));
+            if (expires != null) {
+                Long date = parseDate(response.getHeader("Date"));
+                return now + Math.max(0, expires - (date == null ? now : date));
+            }
+            return now;
+        }
+
+        private static Long parseDate(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                return 0L;
+            }
+        }
+
+        private static String headerOf(ApiRequest request, String name) {
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.utils.api;
+
+import com.utils.config.Configuration;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared keep-alive HTTP client behind RestAssured.
+ * All the requests reuse pooled connections instead of opening a new connection (and TLS handshake) per request
+ */
+@SuppressWarnings("deprecation")
+public class HttpClientPool implements AutoCloseable {
+    private final PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager();
+    private final HttpClient client;
+    private final RestAssuredConfig restAssuredConfig;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Create pool from api.http.* settings
+     * @param config Configuration snapshot
+     */
+    public HttpClientPool(Configuration config) {
+        connectionManager.setMaxTotal(config.getInt("api.http.maxTotal", 50));
+        connectionManager.setDefaultMaxPerRoute(config.getInt("api.http.maxPerRoute", 20));
+        int connectTimeout = (int) config.getDuration("api.http.connectTimeout", Duration.ofSeconds(10)).toMillis();
+        int readTimeout = (int) config.getDuration("api.http.readTimeout", Duration.ofSeconds(60)).toMillis();
+        long idleTimeout = config.getDuration("api.http.idleTimeout", Duration.ofSeconds(30)).toMillis();
+        client = new DefaultHttpClient(connectionManager);
+        restAssuredConfig = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> client)
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeout)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, readTimeout));
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (idleTimeout > 0) {
+            evictor.scheduleWithFixedDelay(() -> {
+                connectionManager.closeExpiredConnections();
+                connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Get RestAssured configuration using the pooled client
+     * @return RestAssured configuration
+     */
+    public RestAssuredConfig getRestAssuredConfig() {
+        return restAssuredConfig;
+    }
+
+    /**
+     * Get statistics of the pool: leased, pending, available connections and max connections
+     * @return Pool statistics
+     */
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+}
@@ -0,0 +1,173 @@
+package com.utils.api;
+
+import io.restassured.path.json.JsonPath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parse-once view of JSON body.
+ * The body is parsed lazily at most once by {@link JsonPath}, which keeps the parsed tree, and path lookups are served from that tree.
+ * Simple paths ("a.b[0].c") are compiled once and cached, other GPath expressions and conversions to objects are done by the same JsonPath,
+ * so the results are the same as of {@link io.restassured.response.Response#jsonPath()}
+ */
+public final class JsonView {
+    private static final int MAX_COMPILED_PATHS = 1024;
+    private static final Map<String, List<Object>> COMPILED_PATHS = Collections.synchronizedMap(
+            new LinkedHashMap<String, List<Object>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Object>> eldest) {
+                    return size() > MAX_COMPILED_PATHS;
+                }
+            });
+    private static final List<Object> NOT_COMPILABLE = Collections.emptyList();
+    private static final Pattern SIMPLE_PATH = Pattern.compile("([A-Za-z_$][\\w$]*)?((?:\\[\\d+])*)");
+    private static final Pattern INDEX = Pattern.compile("\\[(\\d+)]");
+    private static final Object FALLBACK = new Object();
+    private final String body;
+    private final JsonPath jsonPath;
+    private final Lazy<Object> tree;
+
+    public JsonView(String body) {
+        this.body = body;
+        this.jsonPath = new JsonPath(body);
+        this.tree = new Lazy<>(() -> jsonPath.get("$"));
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Get value by the path
+     * @param path GPath expression, "$" or empty String for the root
+     * @param <T> The type of return value
+     * @return The value by the path
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String path) {
+        List<Object> segments = compile(path);
+        if (segments != NOT_COMPILABLE) {
+            Object value = navigate(tree.get(), segments);
+            if (value != FALLBACK) {
+                return (T) value;
+            }
+        }
+        return jsonPath.get(path);
+    }
+
+    /**
+     * Get list by the path
+     * @param path GPath expression
+     * @param <T> The type of elements
+     * @return List by the path
+     */
+    public <T> List<T> getList(String path) {
+        return get(path);
+    }
+
+    /**
+     * Get list by the path with elements converted to the given class by the object mapper of RestAssured
+     * @param path GPath expression
+     * @param cl The class of elements
+     * @param <T> The type of elements
+     * @return List by the path
+     */
+    public <T> List<T> getList(String path, Class<T> cl) {
+        return jsonPath.getList(path, cl);
+    }
+
+    /**
+     * Convert the whole body to object by the object mapper of RestAssured
+     * @param cl The class of object
+     * @param <T> The type of object
+     * @return Object of type T
+     */
+    public <T> T as(Class<T> cl) {
+        return jsonPath.getObject("$", cl);
+    }
+
+    private static Object navigate(Object root, List<Object> segments) {
+        Object current = root;
+        for (Object segment : segments) {
+            if (segment instanceof String && current instanceof Map) {
+                current = ((Map<?, ?>) current).get(segment);
+            } else if (segment instanceof Integer && current instanceof List) {
+                List<?> list = (List<?>) current;
+                int index = (Integer) segment;
+                current = index < list.size() ? list.get(index) : null;
+            } else {
+                return FALLBACK;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Compile the path to the list of keys (String) and indexes (Integer)
+     * @param path The path
+     * @return Segments of the path or NOT_COMPILABLE if the path is not a simple one
+     */
+    private static List<Object> compile(String path) {
+        List<Object> segments = COMPILED_PATHS.get(path);
+        if (segments == null) {
+            segments = parse(path);
+            COMPILED_PATHS.put(path, segments);
+        }
+        return segments;
+    }
+
+    private static List<Object> parse(String path) {
+        String trimmed = path.trim();
+        if (trimmed.isEmpty() || trimmed.equals("$")) {
+            return Collections.unmodifiableList(new ArrayList<>());
+        }
+        List<Object> segments = new ArrayList<>();
+        for (String part : trimmed.split("\\.", -1)) {
+            Matcher matcher = SIMPLE_PATH.matcher(part);
+            if (part.isEmpty() || !matcher.matches()) {
+                return NOT_COMPILABLE;
+            }
+            if (matcher.group(1) != null) {
+                segments.add(matcher.group(1));
+            }
+            Matcher index = INDEX.matcher(matcher.group(2));
+            while (index.find()) {
+                segments.add(Integer.parseInt(index.group(1)));
+            }
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Thread-safe value computed once on the first access
+     * @param <T> The type of value
+     */
+    private static final class Lazy<T> {
+        private final Supplier<T> supplier;
+        private volatile T value;
+
+        private Lazy(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        private T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = supplier.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: requests are started at the arrival times of {@link LoadProfile}
+ * regardless of how long the previous responses take. If all the workers are busy, the request waits in the backlog
+ * and the waiting time is included in its latency. If the backlog is full, the request is dropped and counted in the report
+ */
+public class LoadGenerator {
+    private final Logger logger = Logger.getInstance();
+    private final int maxInFlight;
+    private final int maxBacklog;
+    private final Duration drainTimeout;
+
+    /**
+     * @param maxInFlight Max number of requests executed at the same time
+     * @param maxBacklog Max number of requests waiting for a free worker, the requests arriving when it is full are dropped
+     * @param drainTimeout Time to wait for the requests in flight after the last one is scheduled
+     */
+    public LoadGenerator(int maxInFlight, int maxBacklog, Duration drainTimeout) {
+        if (maxInFlight < 1 || maxBacklog < 0 || (long) maxInFlight + maxBacklog > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Incorrect load settings: maxInFlight=%1$s, maxBacklog=%2$s",
+                    maxInFlight, maxBacklog));
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxBacklog = maxBacklog;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Run the task at the arrival rate of the profile and wait for the requests in flight
+     * @param profile Arrival rate over time
+     * @param task The task sending one request
+     * @return Report of the run
+     */
+    public LoadReport run(LoadProfile profile, Supplier<ApiResponse> task) {
+        logger.info(String.format("Load is started: %1$s", profile));
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLong lastCompletion = new AtomicLong();
+        int capacity = maxInFlight + maxBacklog;
+        Semaphore admitted = new Semaphore(capacity);
+        AtomicInteger counter = new AtomicInteger();
+        // The semaphore admits at most capacity tasks, so the bounded queue never rejects
+        ExecutorService workers = new ThreadPoolExecutor(maxInFlight, maxInFlight, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), r -> {
+            Thread thread = new Thread(r, "api-load-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long scheduled = 0;
+        long dropped = 0;
+        try {
+            for (long arrival = profile.arrivalNanos(0); arrival >= 0; arrival = profile.arrivalNanos(scheduled)) {
+                long intended = start + arrival;
+                for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                scheduled++;
+                if (!admitted.tryAcquire()) {
+                    dropped++;
+                    continue;
+                }
+                workers.execute(() -> {
+                    long sent = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        ApiResponse response = task.get();
+                        failed = response.getStatusCode() >= 400;
+                    } catch (RuntimeException ex) {
+                        logger.error(ex.getMessage());
+                    } finally {
+                        long end = System.nanoTime();
+                        latency.record((end - intended) / 1000);
+                        serviceTime.record((end - sent) / 1000);
+                        completed.increment();
+                        if (failed) {
+                            errors.increment();
+                        }
+                        lastCompletion.accumulateAndGet(end, Math::max);
+                        admitted.release();
+                    }
+                });
+            }
+            try {
+                if (!admitted.tryAcquire(capacity, drainTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    logger.warn(String.format("Requests in flight are not finished in %1$s", drainTimeout));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (dropped > 0) {
+                logger.warn(String.format("%1$s requests are dropped because the backlog of %2$s requests is full", dropped, maxBacklog));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        long end = Math.max(lastCompletion.get(), start + profile.getDuration().toNanos());
+        long done = completed.sum();
+        LoadReport report = new LoadReport(scheduled, done, errors.sum(), dropped, scheduled - dropped - done, end - start,
+                latency, serviceTime);
+        logger.info(String.format("Load is finished: %1$s", report));
+        return report;
+    }
+}
@@ -0,0 +1,141 @@
+package com.utils.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Arrival rate of requests over time: a sequence of stages with constant or linearly changing rate.
+ * Arrival times are computed from the profile only, so they do not depend on response times
+ */
+public final class LoadProfile {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private final List<Stage> stages;
+
+    private LoadProfile(List<Stage> stages) {
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * Create profile with constant rate
+     * @param requestsPerSecond Arrival rate
+     * @param duration Duration of the stage
+     * @return New profile
+     */
+    public static LoadProfile constant(double requestsPerSecond, Duration duration) {
+        return ramp(requestsPerSecond, requestsPerSecond, duration);
+    }
+
+    /**
+     * Create profile with rate changing linearly
+     * @param fromRequestsPerSecond Arrival rate at the start of the stage
+     * @param toRequestsPerSecond Arrival rate at the end of the stage
+     * @param duration Duration of the stage
+     * @return New profile
+     */
+    public static LoadProfile ramp(double fromRequestsPerSecond, double toRequestsPerSecond, Duration duration) {
+        return new LoadProfile(new ArrayList<>()).thenRamp(fromRequestsPerSecond, toRequestsPerSecond, duration);
+    }
+
+    /**
+     * Append stage with constant rate
+     * @param requestsPerSecond Arrival rate
+     * @param duration Duration of the stage
+     * @return New profile
+     */
+    public LoadProfile thenConstant(double requestsPerSecond, Duration duration) {
+        return thenRamp(requestsPerSecond, requestsPerSecond, duration);
+    }
+
+    /**
+     * Append stage with rate changing linearly
+     * @param fromRequestsPerSecond Arrival rate at the start of the stage
+     * @param toRequestsPerSecond Arrival rate at the end of the stage
+     * @param duration Duration of the stage
+     * @return New profile
+     */
+    public LoadProfile thenRamp(double fromRequestsPerSecond, double toRequestsPerSecond, Duration duration) {
+        if (fromRequestsPerSecond < 0 || toRequestsPerSecond < 0 || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(String.format("Incorrect load stage: %1$s -> %2$s rps for %3$s",
+                    fromRequestsPerSecond, toRequestsPerSecond, duration));
+        }
+        List<Stage> next = new ArrayList<>(stages);
+        Stage previous = next.isEmpty() ? null : next.get(next.size() - 1);
+        next.add(new Stage(fromRequestsPerSecond, toRequestsPerSecond, duration.toNanos(),
+                previous == null ? 0 : previous.startNanos + previous.nanos,
+                previous == null ? 0 : previous.countBefore + previous.count));
+        return new LoadProfile(next);
+    }
+
+    /**
+     * Get total duration of all the stages
+     * @return Duration
+     */
+    public Duration getDuration() {
+        Stage last = stages.get(stages.size() - 1);
+        return Duration.ofNanos(last.startNanos + last.nanos);
+    }
+
+    /**
+     * Get number of requests the profile schedules
+     * @return Expected number of requests
+     */
+    public long getExpectedCount() {
+        Stage last = stages.get(stages.size() - 1);
+        return (long) Math.ceil(last.countBefore + last.count);
+    }
+
+    /**
+     * Get the intended start time of the request
+     * @param index Zero-based index of the request
+     * @return Nanoseconds from the start of the load, or -1 if the profile is over
+     */
+    public long arrivalNanos(long index) {
+        for (Stage stage : stages) {
+            double n = index - stage.countBefore;
+            if (n >= 0 && n < stage.count) {
+                return stage.startNanos + stage.offsetNanos(n);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Stage stage : stages) {
+            builder.append(builder.length() == 0 ? "" : ", ")
+                    .append(String.format("%1$s -> %2$s rps for %3$s", stage.from, stage.to, Duration.ofNanos(stage.nanos)));
+        }
+        return builder.toString();
+    }
+
+    private static final class Stage {
+        private final double from;
+        private final double to;
+        private final long nanos;
+        private final long startNanos;
+        private final double countBefore;
+        private final double count;
+
+        private Stage(double from, double to, long nanos, long startNanos, double countBefore) {
+            this.from = from;
+            this.to = to;
+            this.nanos = nanos;
+            this.startNanos = startNanos;
+            this.countBefore = countBefore;
+            this.count = (from + to) / 2 * nanos / NANOS_PER_SECOND;
+        }
+
+        /**
+         * Solve from * t + (to - from) * t^2 / (2 * duration) = n, the number of arrivals since the start of the stage
+         */
+        private long offsetNanos(double n) {
+            double seconds = nanos / NANOS_PER_SECOND;
+            double a = (to - from) / (2 * seconds);
+            double t = a == 0 ? n / from : (-from + Math.sqrt(Math.max(0, from * from + 4 * a * n))) / (2 * a);
+            return Math.min(nanos - 1, (long) (t * NANOS_PER_SECOND));
+        }
+    }
+}
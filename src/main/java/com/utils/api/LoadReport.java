@@ -0,0 +1,105 @@
+package com.utils.api;
+
+/**
+ * Result of the load run. Latency is measured from the intended start time of the request,
+ * so the time the request waited because of slow earlier responses is included (no coordinated omission).
+ * Service time is measured from the actual send
+ */
+public final class LoadReport {
+    private final long scheduled;
+    private final long completed;
+    private final long errors;
+    private final long dropped;
+    private final long unfinished;
+    private final long elapsedNanos;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+
+    LoadReport(long scheduled, long completed, long errors, long dropped, long unfinished, long elapsedNanos,
+               LatencyHistogram latency, LatencyHistogram serviceTime) {
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.unfinished = unfinished;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Get number of requests failed without response or with status code 4xx, 5xx
+     * @return Number of errors
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Get number of requests not sent because the backlog was full
+     * @return Number of dropped requests
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Get number of requests not finished when the drain timeout expired
+     * @return Number of unfinished requests
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1_000_000_000d;
+    }
+
+    /**
+     * Get number of completed requests per second
+     * @return Throughput
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : completed / getElapsedSeconds();
+    }
+
+    /**
+     * Get latency percentile measured from the intended start time
+     * @param percentile Percentile from 0 to 100
+     * @return Latency in microseconds
+     */
+    public long getLatencyMicros(double percentile) {
+        return latency.getPercentile(percentile);
+    }
+
+    /**
+     * Get service time percentile measured from the actual send
+     * @param percentile Percentile from 0 to 100
+     * @return Service time in microseconds
+     */
+    public long getServiceTimeMicros(double percentile) {
+        return serviceTime.getPercentile(percentile);
+    }
+
+    public long getMaxLatencyMicros() {
+        return latency.getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scheduled=%1$s, completed=%2$s, errors=%3$s, dropped=%4$s, unfinished=%5$s, elapsed=%6$.2fs, "
+                        + "throughput=%7$.1f rps, latency p50=%8$.2fms p90=%9$.2fms p99=%10$.2fms max=%11$.2fms, "
+                        + "service time p50=%12$.2fms p99=%13$.2fms",
+                scheduled, completed, errors, dropped, unfinished, getElapsedSeconds(), getThroughput(),
+                latency.getPercentile(50) / 1000.0, latency.getPercentile(90) / 1000.0, latency.getPercentile(99) / 1000.0,
+                latency.getMax() / 1000.0, serviceTime.getPercentile(50) / 1000.0, serviceTime.getPercentile(99) / 1000.0);
+    }
+}
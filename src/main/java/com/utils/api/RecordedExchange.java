@@ -0,0 +1,125 @@
+package com.utils.api;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One recorded request-response pair, stored as a line of the archive
+ */
+final class RecordedExchange {
+    private String method;
+    private String path;
+    private String query;
+    private String bodyHash;
+    private int status;
+    private List<String[]> headers;
+    private String body;
+
+    RecordedExchange(String method, String path, String query, String bodyHash, int status, List<String[]> headers, byte[] body) {
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.bodyHash = bodyHash;
+        this.status = status;
+        this.headers = headers;
+        this.body = Base64.getEncoder().encodeToString(body);
+    }
+
+    /**
+     * Build the key the exchanges are matched by
+     * @param method HTTP method
+     * @param path Raw path
+     * @param query Raw query, null if absent
+     * @param bodyHash Hash of the request body, see {@link #hash(byte[])}
+     * @return Match key
+     */
+    static String key(String method, String path, String query, String bodyHash) {
+        return String.format("%1$s %2$s?%3$s #%4$s", method, path, canonicalQuery(query), bodyHash);
+    }
+
+    /**
+     * Sort parameters of the query, so the order of parameters does not matter
+     * @param query Raw query, null if absent
+     * @return Sorted query
+     */
+    static String canonicalQuery(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        String[] params = query.split("&");
+        Arrays.sort(params);
+        return String.join("&", params);
+    }
+
+    /**
+     * Build form body in the canonical form: decoded parameters sorted by name
+     * @param params Form parameters
+     * @return Canonical form body
+     */
+    static byte[] canonicalForm(Map<String, ?> params) {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap<>(params).forEach((key, value) -> builder.append(builder.length() == 0 ? "" : "&").append(key).append('=').append(value));
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Build form body in the canonical form from URL-encoded body
+     * @param body URL-encoded body
+     * @return Canonical form body
+     */
+    static byte[] canonicalForm(String body) {
+        Map<String, String> params = new TreeMap<>();
+        for (String pair : body.split("&")) {
+            if (!pair.isEmpty()) {
+                String[] parts = pair.split("=", 2);
+                params.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                        parts.length == 2 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+            }
+        }
+        return canonicalForm(params);
+    }
+
+    /**
+     * Get short hash of the request body
+     * @param body The body, empty if the request has no body
+     * @return Hex hash or "-" for empty body
+     */
+    static String hash(byte[] body) {
+        if (body.length == 0) {
+            return "-";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    String key() {
+        return key(method, path, query, bodyHash);
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    List<String[]> getHeaders() {
+        return headers;
+    }
+
+    byte[] decodeBody() {
+        return body == null ? new byte[0] : Base64.getDecoder().decode(body);
+    }
+}
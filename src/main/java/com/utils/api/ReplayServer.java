@@ -0,0 +1,199 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Embedded HTTP stub on the loopback interface serving the responses recorded by {@link ApiRecorder}.
+ * Requests are matched by method, path, query and body hash. If the same request was recorded several times,
+ * the responses are served in the recorded order and the last one is repeated
+ */
+public class ReplayServer implements AutoCloseable {
+    private static final Gson GSON = new Gson();
+    private final Logger logger = Logger.getInstance();
+    private final Map<String, Recordings> recordings = new HashMap<>();
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    static {
+        // Headers and body are written separately, without TCP_NODELAY every small response waits for delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Load the archive and start the server on a free port
+     * @param archive Path to the archive written by {@link ApiRecorder}
+     * @param latency Delay added to every response, zero for none
+     * @param jitter Max random delay added to the latency, zero for none
+     * @throws IOException if the archive can't be read or the server can't be started
+     */
+    public ReplayServer(Path archive, Duration latency, Duration jitter) throws IOException {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        InputStream in = Files.newInputStream(archive);
+        if (archive.toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            in = new GZIPInputStream(in, 1 << 16);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    RecordedExchange exchange = GSON.fromJson(line, RecordedExchange.class);
+                    recordings.computeIfAbsent(exchange.key(), key -> new Recordings()).add(new Reply(exchange));
+                }
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "api-replay-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info(String.format("API replay server is started on %1$s with %2$s recorded requests from %3$s",
+                getBaseUrl(), recordings.size(), archive.toAbsolutePath()));
+    }
+
+    /**
+     * Get URL of the server
+     * @return URL with host and port, without trailing slash
+     */
+    public String getBaseUrl() {
+        return String.format("http://%1$s:%2$s", server.getAddress().getHostString(), server.getAddress().getPort());
+    }
+
+    /**
+     * Get URL replacing the scheme, host and port of the recorded base URL by the ones of the server
+     * @param recordedBaseUrl Base URL the requests were recorded against
+     * @return Base URL to send the requests to
+     */
+    public String getBaseUrl(String recordedBaseUrl) {
+        String path = URI.create(recordedBaseUrl).getRawPath();
+        return getBaseUrl() + (path == null ? "" : path);
+    }
+
+    public long getServed() {
+        return served.get();
+    }
+
+    /**
+     * Get number of requests which were not recorded. They are answered with 501 Not Implemented
+     * @return Number of unmatched requests
+     */
+    public long getUnmatched() {
+        return unmatched.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")) {
+                body = RecordedExchange.canonicalForm(new String(body, StandardCharsets.UTF_8));
+            }
+            URI uri = exchange.getRequestURI();
+            String key = RecordedExchange.key(exchange.getRequestMethod(), uri.getRawPath(), uri.getRawQuery(), RecordedExchange.hash(body));
+            Recordings replies = recordings.get(key);
+            delay();
+            if (replies == null) {
+                unmatched.incrementAndGet();
+                logger.error(String.format("Request is not recorded: %1$s", key));
+                byte[] message = String.format("Request is not recorded: %1$s", key).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(501, message.length);
+                exchange.getResponseBody().write(message);
+                return;
+            }
+            Reply reply = replies.next();
+            reply.headers.forEach(header -> exchange.getResponseHeaders().add(header[0], header[1]));
+            exchange.sendResponseHeaders(reply.status, reply.body.length == 0 ? -1 : reply.body.length);
+            if (reply.body.length > 0) {
+                exchange.getResponseBody().write(reply.body);
+            }
+            served.incrementAndGet();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void delay() {
+        long nanos = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0);
+        if (nanos > 0) {
+            try {
+                Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Decoded response, ready to be written
+     */
+    private static final class Reply {
+        private final int status;
+        private final List<String[]> headers;
+        private final byte[] body;
+
+        private Reply(RecordedExchange exchange) {
+            status = exchange.getStatus();
+            headers = exchange.getHeaders() == null ? new ArrayList<>() : exchange.getHeaders();
+            body = exchange.decodeBody();
+        }
+    }
+
+    /**
+     * Responses recorded for the same request
+     */
+    private static final class Recordings {
+        private final List<Reply> replies = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private void add(Reply reply) {
+            replies.add(reply);
+        }
+
+        private Reply next() {
+            int index = next.getAndUpdate(i -> Math.min(i + 1, replies.size() - 1));
+            return replies.get(index);
+        }
+    }
+}
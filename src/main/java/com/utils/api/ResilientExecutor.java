@@ -0,0 +1,212 @@
+package com.utils.api;
+
+import aquality.selenium.core.logging.Logger;
+import com.utils.config.Configuration;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer for idempotent requests: retries with jittered exponential backoff on 429, 5xx and I/O errors,
+ * hedged requests fired after the latency percentile of the endpoint, once enough latencies are recorded to know it, and a circuit breaker per host
+ */
+public class ResilientExecutor {
+    private static final ThreadLocal<String> ATTEMPT = new ThreadLocal<>();
+    private static final int MIN_SAMPLES_FOR_HEDGE_DELAY = 20;
+    private final Logger logger = Logger.getInstance();
+    private final ApiMetrics metrics;
+    private final Supplier<AsyncExecutor> asyncExecutor;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final boolean hedgeEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMs;
+    private final int breakerThreshold;
+    private final long breakerOpenMs;
+
+    /**
+     * Create executor from api.retry.*, api.hedge.* and api.breaker.* settings
+     * @param config Configuration snapshot
+     * @param metrics Metrics used to get latency percentiles of endpoints
+     * @param asyncExecutor Executor for hedged requests
+     */
+    public ResilientExecutor(Configuration config, ApiMetrics metrics, Supplier<AsyncExecutor> asyncExecutor) {
+        this.metrics = metrics;
+        this.asyncExecutor = asyncExecutor;
+        maxAttempts = Math.max(1, config.getInt("api.retry.maxAttempts", 3));
+        baseDelayMs = config.getDuration("api.retry.baseDelay", Duration.ofMillis(100)).toMillis();
+        maxDelayMs = config.getDuration("api.retry.maxDelay", Duration.ofSeconds(2)).toMillis();
+        hedgeEnabled = config.getBoolean("api.hedge.enabled", false);
+        hedgePercentile = config.getInt("api.hedge.percentile", 95);
+        hedgeMinDelayMs = config.getDuration("api.hedge.minDelay", Duration.ofMillis(50)).toMillis();
+        breakerThreshold = config.getInt("api.breaker.failureThreshold", 5);
+        breakerOpenMs = config.getDuration("api.breaker.openDuration", Duration.ofSeconds(30)).toMillis();
+    }
+
+    /**
+     * Get the label of the attempt executed by the current thread, used in logs
+     * @return Label of the attempt or null if the request is not executed by this class
+     */
+    public static String currentAttempt() {
+        return ATTEMPT.get();
+    }
+
+    /**
+     * Execute idempotent request
+     * @param host The host of request, used for the circuit breaker
+     * @param method HTTP method
+     * @param path Path of request, used to get latency percentile for hedging
+     * @param call Sends the request
+     * @return Response of the first successful attempt or of the last attempt
+     * @throws IllegalStateException if the circuit of the host is open
+     */
+    public ApiResponse execute(String host, String method, String path, Supplier<ApiResponse> call) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(host, h -> new CircuitBreaker(h, breakerThreshold, breakerOpenMs));
+        for (int attempt = 1; ; attempt++) {
+            breaker.acquire();
+            String label = String.format("attempt %1$s/%2$s", attempt, maxAttempts);
+            try {
+                ApiResponse response = hedgeEnabled ? hedged(host, method, path, label, call) : labeled(label, call).get();
+                if (!isRetryable(response.getStatusCode())) {
+                    breaker.onSuccess();
+                    return response;
+                }
+                breaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    return response;
+                }
+                logger.info(String.format("%1$s %2$s returned %3$s, retrying", method, path, response.getStatusCode()));
+                sleep(backoff(attempt, response.getHeader("Retry-After")));
+            } catch (Exception ex) {
+                breaker.onFailure();
+                if (attempt >= maxAttempts || !isTransient(ex)) {
+                    throw ex;
+                }
+                logger.info(String.format("%1$s %2$s failed with %3$s, retrying", method, path, ex));
+                sleep(backoff(attempt, null));
+            }
+        }
+    }
+
+    /**
+     * Get circuit breaker of the host
+     * @param host The host with port
+     * @return Circuit breaker or null if no requests have been sent to the host
+     */
+    public CircuitBreaker getCircuitBreaker(String host) {
+        return breakers.get(host);
+    }
+
+    private ApiResponse hedged(String host, String method, String path, String label, Supplier<ApiResponse> call) {
+        long percentileMicros = metrics.getPercentileMicros(method, path, hedgePercentile, MIN_SAMPLES_FOR_HEDGE_DELAY);
+        if (percentileMicros < 0) {
+            return labeled(label, call).get();
+        }
+        long delayMs = Math.max(hedgeMinDelayMs, percentileMicros / 1000);
+        CompletableFuture<ApiResponse> primary = asyncExecutor.get().submit(host, labeled(label, call));
+        try {
+            return primary.get(delayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            logger.info(String.format("%1$s %2$s is slower than %3$s ms, sending hedged request", method, path, delayMs));
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        CompletableFuture<ApiResponse> hedge = asyncExecutor.get().submit(host, labeled(label + " (hedged)", call));
+        try {
+            return firstSuccessful(primary, hedge).get();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static CompletableFuture<ApiResponse> firstSuccessful(CompletableFuture<ApiResponse> first, CompletableFuture<ApiResponse> second) {
+        CompletableFuture<ApiResponse> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        for (CompletableFuture<ApiResponse> future : List.of(first, second)) {
+            future.whenComplete((response, error) -> {
+                boolean success = error == null && !isRetryable(response.getStatusCode());
+                if (success) {
+                    result.complete(response);
+                } else if (remaining.decrementAndGet() == 0) {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(response);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+
+    private static Supplier<ApiResponse> labeled(String label, Supplier<ApiResponse> call) {
+        return () -> {
+            ATTEMPT.set(label);
+            try {
+                return call.get();
+            } finally {
+                ATTEMPT.remove();
+            }
+        };
+    }
+
+    private long backoff(int attempt, String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Math.min(maxDelayMs, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException ex) {
+                // HTTP-date format is not supported, exponential backoff is used
+            }
+        }
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    private static boolean isTransient(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RuntimeException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.utils.config;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of configuration values.
+ * Values are resolved in the next order: system properties, environment variables, properties file
+ */
+public final class Configuration {
+    private final Map<String, String> values;
+
+    private Configuration(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Build snapshot from the file properties, overridden by environment variables and system properties
+     * @param fileProperties Properties loaded from the configuration file
+     * @param env Environment variables
+     * @param system System properties
+     * @return New snapshot
+     */
+    public static Configuration of(Properties fileProperties, Map<String, String> env, Properties system) {
+        Map<String, String> map = new HashMap<>();
+        fileProperties.stringPropertyNames().forEach(key -> map.put(key, fileProperties.getProperty(key)));
+        for (String key : fileProperties.stringPropertyNames()) {
+            String envValue = env.get(toEnvName(key));
+            if (envValue != null) {
+                map.put(key, envValue);
+            }
+        }
+        system.stringPropertyNames().forEach(key -> map.put(key, system.getProperty(key)));
+        return new Configuration(map);
+    }
+
+    /**
+     * Get name of the environment variable for the given key: "db.pool.maxSize" -> "DB_POOL_MAXSIZE"
+     * @param key The key of property
+     * @return Name of the environment variable
+     */
+    static String toEnvName(String key) {
+        return key.replaceAll("[^A-Za-z0-9]", "_").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Get value by the key
+     * @param key The key to get value
+     * @return The value or null if there is no such key
+     */
+    public String getString(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Get value by the key
+     * @param key The key to get value
+     * @param defaultValue The value returned if there is no such key
+     * @return The value or default value
+     */
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Get int value by the key
+     * @param key The key to get value
+     * @param defaultValue The value returned if there is no such key
+     * @return The value or default value
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format("Property %1$s is not an integer: %2$s", key, value), ex);
+        }
+    }
+
+    /**
+     * Get boolean value by the key
+     * @param key The key to get value
+     * @param defaultValue The value returned if there is no such key
+     * @return The value or default value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Get duration by the key. Supported formats: ISO-8601 ("PT5S"), number of milliseconds ("500")
+     * or number with unit suffix ("500ms", "5s", "2m", "1h")
+     * @param key The key to get value
+     * @param defaultValue The value returned if there is no such key
+     * @return The value or default value
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = values.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return parseDuration(value.trim().toLowerCase(Locale.ROOT));
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new IllegalArgumentException(String.format("Property %1$s is not a duration: %2$s", key, value), ex);
+        }
+    }
+
+    /**
+     * Check if the key is present
+     * @param key The key to check
+     * @return true - if key is present. Otherwise false
+     */
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Get all the values of snapshot
+     * @return Unmodifiable map of values
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.startsWith("pt") || value.startsWith("p")) {
+            return Duration.parse(value.toUpperCase(Locale.ROOT));
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+        }
+        String amount = value.substring(0, value.length() - 1).trim();
+        switch (value.charAt(value.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(Long.parseLong(amount));
+            case 'm':
+                return Duration.ofMinutes(Long.parseLong(amount));
+            case 'h':
+                return Duration.ofHours(Long.parseLong(amount));
+            default:
+                return Duration.ofMillis(Long.parseLong(value));
+        }
+    }
+}
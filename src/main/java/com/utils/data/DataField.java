@@ -0,0 +1,31 @@
+package com.utils.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Field of a synthetic dataset, see {@link DatasetSchema}
+ */
+public interface DataField {
+    String getName();
+
+    /**
+     * Check if the values are numbers, i.e. written without quotes
+     * @return true - if the values are numbers
+     */
+    boolean isNumeric();
+
+    /**
+     * Check if the values are unique. The value of a unique field depends only on the row,
+     * so it can be referenced by other datasets without keeping the values
+     * @return true - if the values are unique
+     */
+    boolean isUnique();
+
+    /**
+     * Append the value of the row
+     * @param row The index of the row
+     * @param random The generator of the current part of the dataset. Not used by unique fields
+     * @param out The buffer to append the raw value to, it is escaped by the writer
+     */
+    void append(long row, SplittableRandom random, StringBuilder out);
+}
@@ -0,0 +1,213 @@
+package com.utils.data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Declarative schema of a synthetic dataset: the number of rows and the fields of each row.
+ * Unique fields are permutations of the row index seeded by the run seed when they are added,
+ * so the datasets referencing them get the same keys without keeping them in memory
+ */
+public class DatasetSchema {
+    private final String name;
+    private final long rows;
+    private final List<DataField> fields = new ArrayList<>();
+
+    /**
+     * @param name The name of the dataset, it also separates the random streams of datasets
+     * @param rows The number of rows
+     */
+    public DatasetSchema(String name, long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException(String.format("Incorrect number of rows of %1$s: %2$s", name, rows));
+        }
+        this.name = name;
+        this.rows = rows;
+    }
+
+    /**
+     * Add the sequence: start, start + 1, ...
+     * @param field The name of the field
+     * @param start The first value
+     * @return This schema
+     */
+    public DatasetSchema sequence(String field, long start) {
+        return field(new Fields.Sequence(field, start));
+    }
+
+    /**
+     * Add uniformly distributed integers
+     * @param field The name of the field
+     * @param min The min value (inclusive)
+     * @param max The max value (inclusive)
+     * @return This schema
+     */
+    public DatasetSchema integer(String field, long min, long max) {
+        return field(new Fields.UniformLong(field, min, max));
+    }
+
+    /**
+     * Add unique integers in the random order
+     * @param field The name of the field
+     * @param min The min value (inclusive)
+     * @param max The max value (inclusive), max - min must be less than 2^32 and not less than the number of rows
+     * @return This schema
+     */
+    public DatasetSchema uniqueInteger(String field, long min, long max) {
+        return field(new Fields.UniqueLong(field, min, max - min + 1, rows, seed(field)));
+    }
+
+    /**
+     * Add normally distributed decimals
+     * @param field The name of the field
+     * @param mean The mean
+     * @param deviation The standard deviation
+     * @param scale The number of digits after the point
+     * @return This schema
+     */
+    public DatasetSchema gaussian(String field, double mean, double deviation, int scale) {
+        return field(new Fields.Gaussian(field, mean, deviation, scale));
+    }
+
+    /**
+     * Add strings of random length
+     * @param field The name of the field
+     * @param minLength The min length (inclusive)
+     * @param maxLength The max length (inclusive)
+     * @param alphabet The characters to use, e.g. {@link RandomSource#ALPHABETIC}
+     * @return This schema
+     */
+    public DatasetSchema string(String field, int minLength, int maxLength, String alphabet) {
+        return field(new Fields.RandomString(field, minLength, maxLength, alphabet));
+    }
+
+    /**
+     * Add unique strings of the same length
+     * @param field The name of the field
+     * @param length The length
+     * @param alphabet The characters to use, alphabet size ^ length must not be less than the number of rows
+     * @return This schema
+     */
+    public DatasetSchema uniqueString(String field, int length, String alphabet) {
+        return field(new Fields.UniqueString(field, length, alphabet, rows, seed(field)));
+    }
+
+    /**
+     * Add values chosen with the weights, e.g. statuses with their shares
+     * @param field The name of the field
+     * @param values The values
+     * @param weights The weights of the values
+     * @return This schema
+     */
+    public DatasetSchema oneOf(String field, List<String> values, double[] weights) {
+        return field(new Fields.Weighted(field, values, weights));
+    }
+
+    /**
+     * Add values chosen by Zipf's law: the k-th value is chosen with the weight 1 / k^exponent
+     * @param field The name of the field
+     * @param values The values from the most to the least frequent
+     * @param exponent The exponent, e.g. 1
+     * @return This schema
+     */
+    public DatasetSchema zipf(String field, List<String> values, double exponent) {
+        double[] weights = new double[values.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return field(new Fields.Weighted(field, values, weights));
+    }
+
+    /**
+     * Add booleans
+     * @param field The name of the field
+     * @param probability The probability of true
+     * @return This schema
+     */
+    public DatasetSchema bool(String field, double probability) {
+        return field(new Fields.Bool(field, probability));
+    }
+
+    /**
+     * Add uniformly distributed ISO-8601 timestamps
+     * @param field The name of the field
+     * @param from The min timestamp (inclusive)
+     * @param to The max timestamp (exclusive)
+     * @return This schema
+     */
+    public DatasetSchema timestamp(String field, Instant from, Instant to) {
+        return field(new Fields.Timestamp(field, from, to));
+    }
+
+    /**
+     * Add the foreign key: the value of the unique field of a random row of the parent dataset
+     * @param field The name of the field
+     * @param parent The parent dataset
+     * @param parentField The name of the unique field of the parent dataset
+     * @return This schema
+     */
+    public DatasetSchema reference(String field, DatasetSchema parent, String parentField) {
+        DataField key = parent.getField(parentField);
+        if (key == null || !key.isUnique()) {
+            throw new IllegalArgumentException(String.format("Field %1$s of %2$s is not a unique field", parentField, parent.getName()));
+        }
+        if (parent.getRows() == 0) {
+            throw new IllegalArgumentException(String.format("Dataset %1$s is empty", parent.getName()));
+        }
+        return field(new Fields.Reference(field, key, parent.getRows()));
+    }
+
+    /**
+     * Add the custom field
+     * @param field The field
+     * @return This schema
+     */
+    public DatasetSchema field(DataField field) {
+        if (getField(field.getName()) != null) {
+            throw new IllegalArgumentException(String.format("Field %1$s is already added to %2$s", field.getName(), name));
+        }
+        fields.add(field);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public List<DataField> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Get the field by the name
+     * @param field The name of the field
+     * @return The field or null if there is no such field
+     */
+    public DataField getField(String field) {
+        for (DataField candidate : fields) {
+            if (candidate.getName().equals(field)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the random stream of the part of the dataset, see {@link RandomSource#forStream(long)}
+     * @param part The index of the part
+     * @return The index of the stream
+     */
+    long streamOf(long part) {
+        return ((long) name.hashCode() << 32) + part;
+    }
+
+    private long seed(String field) {
+        return RandomSource.forStream(((long) name.hashCode() << 32) ^ field.hashCode() ^ Long.MIN_VALUE).nextLong();
+    }
+}
@@ -0,0 +1,190 @@
+package com.utils.data;
+
+import aquality.selenium.core.logging.Logger;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes synthetic datasets to files. The rows are generated in parts on several threads and written in order,
+ * only a few parts per thread are held in memory. Every part has its own generator derived from the run seed,
+ * so the file is the same for the same seed regardless of the number of threads
+ */
+public class DatasetWriter {
+    private final Logger logger = Logger.getInstance();
+    private final int threads;
+    private final int partRows;
+
+    /**
+     * Format of the file
+     */
+    public enum Format {
+        /** Comma-separated values with the header line */
+        CSV,
+        /** One JSON object per line */
+        NDJSON
+    }
+
+    /**
+     * @param threads The number of threads generating the rows
+     * @param partRows The number of rows generated at once by a thread
+     */
+    public DatasetWriter(int threads, int partRows) {
+        if (threads < 1 || partRows < 1) {
+            throw new IllegalArgumentException(String.format("Incorrect settings: threads=%1$s, partRows=%2$s", threads, partRows));
+        }
+        this.threads = threads;
+        this.partRows = partRows;
+    }
+
+    /**
+     * Generate the dataset and write it to the file, the file is overwritten
+     * @param schema The schema of the dataset
+     * @param file The file
+     * @param format The format of the file
+     * @return The number of written bytes
+     * @throws IOException if the file can't be written or the rows can't be generated
+     */
+    public long write(DatasetSchema schema, Path file, Format format) throws IOException {
+        long started = System.nanoTime();
+        long parts = (schema.getRows() + partRows - 1) / partRows;
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "data-gen-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long bytes = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == Format.CSV) {
+                bytes += write(channel, header(schema));
+            }
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long next = 0;
+            while (next < parts || !pending.isEmpty()) {
+                while (next < parts && pending.size() < threads * 2) {
+                    long part = next++;
+                    pending.add(workers.submit(() -> generate(schema, part, format)));
+                }
+                bytes += write(channel, pending.poll().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(ex.getMessage());
+        } catch (ExecutionException ex) {
+            throw new IOException(String.format("Rows of %1$s can't be generated", schema.getName()), ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        logger.info(String.format("%1$s rows of %2$s are written to %3$s in %4$s ms",
+                schema.getRows(), schema.getName(), file, (System.nanoTime() - started) / 1_000_000));
+        return bytes;
+    }
+
+    private ByteBuffer generate(DatasetSchema schema, long part, Format format) {
+        SplittableRandom random = RandomSource.forStream(schema.streamOf(part));
+        List<DataField> fields = schema.getFields();
+        StringBuilder out = new StringBuilder((int) Math.min(1 << 24, (long) partRows * fields.size() * 12));
+        StringBuilder value = new StringBuilder();
+        long to = Math.min(schema.getRows(), (part + 1) * partRows);
+        for (long row = part * partRows; row < to; row++) {
+            if (format == Format.NDJSON) {
+                out.append('{');
+            }
+            for (int i = 0; i < fields.size(); i++) {
+                DataField field = fields.get(i);
+                value.setLength(0);
+                field.append(row, random, value);
+                if (format == Format.NDJSON) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    appendJson(out, field.getName());
+                    out.append(':');
+                    if (field.isNumeric()) {
+                        out.append(value);
+                    } else {
+                        appendJson(out, value);
+                    }
+                } else {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    appendCsv(out, value);
+                }
+            }
+            out.append(format == Format.NDJSON ? "}\n" : "\r\n");
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(out));
+    }
+
+    private static ByteBuffer header(DatasetSchema schema) {
+        StringBuilder out = new StringBuilder();
+        for (DataField field : schema.getFields()) {
+            if (out.length() > 0) {
+                out.append(',');
+            }
+            appendCsv(out, field.getName());
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(out.append("\r\n")));
+    }
+
+    private static long write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return written;
+    }
+
+    private static void appendCsv(StringBuilder out, CharSequence value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJson(StringBuilder out, CharSequence value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,334 @@
+package com.utils.data;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Fields of {@link DatasetSchema}
+ */
+final class Fields {
+    private static final double GOLDEN_RATIO = 0.6180339887498949;
+
+    private Fields() {}
+
+    /**
+     * Base of the fields: the name
+     */
+    abstract static class Named implements DataField {
+        private final String name;
+
+        Named(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnique() {
+            return false;
+        }
+    }
+
+    static final class Sequence extends Named {
+        private final long start;
+
+        Sequence(String name, long start) {
+            super(name);
+            this.start = start;
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        public boolean isUnique() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            out.append(start + row);
+        }
+    }
+
+    static final class UniformLong extends Named {
+        private final long min;
+        private final long bound;
+
+        UniformLong(String name, long min, long max) {
+            super(name);
+            if (max < min || max == Long.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Incorrect range of %1$s: %2$s..%3$s", name, min, max));
+            }
+            this.min = min;
+            this.bound = max + 1;
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            out.append(random.nextLong(min, bound));
+        }
+    }
+
+    /**
+     * Affine permutation of the row index: (multiplier * row + offset) mod size, the multiplier is coprime to the size
+     */
+    static final class Permutation {
+        private final long size;
+        private final long multiplier;
+        private final long offset;
+
+        Permutation(String name, long size, long rows, long seed) {
+            if (size > 1L << 32 || size < rows) {
+                throw new IllegalArgumentException(String.format(
+                        "Incorrect number of unique values of %1$s: %2$s for %3$s rows, max is 2^32", name, size, rows));
+            }
+            this.size = size;
+            SplittableRandom random = new SplittableRandom(seed);
+            long candidate = Math.max(1, (long) (size * GOLDEN_RATIO) + random.nextLong(Math.max(1, size / 16)));
+            while (gcd(candidate % size, size) != 1) {
+                candidate++;
+            }
+            this.multiplier = size == 1 ? 0 : candidate % size;
+            this.offset = size == 1 ? 0 : random.nextLong(size);
+        }
+
+        long apply(long row) {
+            return Long.remainderUnsigned(multiplier * row + offset, size);
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    static final class UniqueLong extends Named {
+        private final long min;
+        private final Permutation permutation;
+
+        UniqueLong(String name, long min, long size, long rows, long seed) {
+            super(name);
+            this.min = min;
+            this.permutation = new Permutation(name, size, rows, seed);
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        public boolean isUnique() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            out.append(min + permutation.apply(row));
+        }
+    }
+
+    /**
+     * The last digits in the alphabet encode the permuted row, the leading digits, if any are left, are derived from it
+     */
+    static final class UniqueString extends Named {
+        private final int length;
+        private final String alphabet;
+        private final int uniqueDigits;
+        private final Permutation permutation;
+
+        UniqueString(String name, int length, String alphabet, long rows, long seed) {
+            super(name);
+            this.length = length;
+            this.alphabet = alphabet;
+            long space = 1;
+            int digits = 0;
+            while (digits < length && space < 1L << 32) {
+                space = Math.min(space * alphabet.length(), 1L << 32);
+                digits++;
+            }
+            this.uniqueDigits = digits;
+            this.permutation = new Permutation(name, space, rows, seed);
+        }
+
+        @Override
+        public boolean isUnique() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            long value = permutation.apply(row);
+            int start = out.length();
+            out.setLength(start + length);
+            long derived = value;
+            for (int i = start; i < start + length - uniqueDigits; i++) {
+                derived = derived * 0x9e3779b97f4a7c15L + 0x632be59bd9b4e5bL;
+                out.setCharAt(i, alphabet.charAt((int) (((derived >>> 32) * alphabet.length()) >>> 32)));
+            }
+            for (int i = start + length - 1; i >= start + length - uniqueDigits; i--) {
+                out.setCharAt(i, alphabet.charAt((int) (value % alphabet.length())));
+                value /= alphabet.length();
+            }
+        }
+    }
+
+    static final class Gaussian extends Named {
+        private final double mean;
+        private final double deviation;
+        private final double factor;
+
+        Gaussian(String name, double mean, double deviation, int scale) {
+            super(name);
+            this.mean = mean;
+            this.deviation = deviation;
+            this.factor = Math.pow(10, scale);
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            double u = 1 - random.nextDouble();
+            double z = Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+            out.append(Math.round((mean + z * deviation) * factor) / factor);
+        }
+    }
+
+    static final class RandomString extends Named {
+        private final int minLength;
+        private final int maxLength;
+        private final String alphabet;
+        private final ThreadLocal<char[]> buffers;
+
+        RandomString(String name, int minLength, int maxLength, String alphabet) {
+            super(name);
+            if (minLength < 0 || maxLength < minLength) {
+                throw new IllegalArgumentException(String.format("Incorrect length of %1$s: %2$s..%3$s", name, minLength, maxLength));
+            }
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.alphabet = alphabet;
+            this.buffers = ThreadLocal.withInitial(() -> new char[maxLength]);
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            int length = minLength == maxLength ? minLength : random.nextInt(minLength, maxLength + 1);
+            char[] buffer = buffers.get();
+            RandomSource.fill(random, buffer, 0, length, alphabet);
+            out.append(buffer, 0, length);
+        }
+    }
+
+    static final class Weighted extends Named {
+        private final String[] values;
+        private final double[] cumulative;
+
+        Weighted(String name, List<String> values, double[] weights) {
+            super(name);
+            if (values.isEmpty() || values.size() != weights.length) {
+                throw new IllegalArgumentException(String.format("Values and weights of %1$s don't match", name));
+            }
+            this.values = values.toArray(new String[0]);
+            this.cumulative = new double[weights.length];
+            double total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException(String.format("Negative weight of %1$s: %2$s", name, weights[i]));
+                }
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException(String.format("Weights of %1$s are zero", name));
+            }
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            index = index < 0 ? -index - 1 : index + 1;
+            out.append(values[Math.min(index, values.length - 1)]);
+        }
+    }
+
+    static final class Bool extends Named {
+        private final double probability;
+
+        Bool(String name, double probability) {
+            super(name);
+            this.probability = probability;
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return true;
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            out.append(random.nextDouble() < probability);
+        }
+    }
+
+    static final class Timestamp extends Named {
+        private final long from;
+        private final long to;
+
+        Timestamp(String name, Instant from, Instant to) {
+            super(name);
+            this.from = from.toEpochMilli();
+            this.to = to.toEpochMilli();
+            if (this.to <= this.from) {
+                throw new IllegalArgumentException(String.format("Incorrect range of %1$s: %2$s..%3$s", name, from, to));
+            }
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            out.append(Instant.ofEpochMilli(random.nextLong(from, to)));
+        }
+    }
+
+    static final class Reference extends Named {
+        private final DataField key;
+        private final long rows;
+
+        Reference(String name, DataField key, long rows) {
+            super(name);
+            this.key = key;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean isNumeric() {
+            return key.isNumeric();
+        }
+
+        @Override
+        public void append(long row, SplittableRandom random, StringBuilder out) {
+            key.append(random.nextLong(rows), null, out);
+        }
+    }
+}
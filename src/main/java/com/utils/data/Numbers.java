@@ -0,0 +1,385 @@
+package com.utils.data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Parsing, order checks and statistics of numbers in primitive arrays, without boxing.
+ * Arrays and random access lists of at least {@link #PARALLEL_THRESHOLD} elements are processed on all the cores
+ */
+public final class Numbers {
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+    private Numbers() {}
+
+    /**
+     * Parse the strings to doubles
+     * @param values The strings, e.g. a column of a table
+     * @return The numbers in the same order
+     * @throws NumberFormatException if a string is not a number
+     */
+    public static double[] parseDoubles(List<String> values) {
+        double[] numbers = new double[values.size()];
+        if (values instanceof RandomAccess) {
+            range(numbers.length).forEach(i -> numbers[i] = parseDouble(values.get(i), 0, values.get(i).length()));
+        } else {
+            Iterator<String> iterator = values.iterator();
+            for (int i = 0; i < numbers.length; i++) {
+                String value = iterator.next();
+                numbers[i] = parseDouble(value, 0, value.length());
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Parse the strings to longs
+     * @param values The strings, e.g. a column of a table
+     * @return The numbers in the same order
+     * @throws NumberFormatException if a string is not a number
+     */
+    public static long[] parseLongs(List<String> values) {
+        long[] numbers = new long[values.size()];
+        if (values instanceof RandomAccess) {
+            range(numbers.length).forEach(i -> numbers[i] = parseLong(values.get(i), 0, values.get(i).length()));
+        } else {
+            Iterator<String> iterator = values.iterator();
+            for (int i = 0; i < numbers.length; i++) {
+                String value = iterator.next();
+                numbers[i] = parseLong(value, 0, value.length());
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Parse the numbers separated by the separator or line breaks, e.g. "1.5,2,3" or a column of a text file.
+     * Whitespace around the numbers and empty values are skipped
+     * @param text The text
+     * @param separator The separator of the numbers
+     * @return The numbers in the same order
+     * @throws NumberFormatException if a value is not a number
+     */
+    public static double[] parseDoubles(CharSequence text, char separator) {
+        double[] numbers = new double[16];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || isSeparator(text.charAt(i), separator)) {
+                if (!isBlank(text, start, i)) {
+                    if (count == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, count * 2);
+                    }
+                    numbers[count++] = parseDouble(text, start, i);
+                }
+                start = i + 1;
+            }
+        }
+        return Arrays.copyOf(numbers, count);
+    }
+
+    /**
+     * Parse the numbers separated by the separator or line breaks, e.g. "1,2,3" or a column of a text file.
+     * Whitespace around the numbers and empty values are skipped
+     * @param text The text
+     * @param separator The separator of the numbers
+     * @return The numbers in the same order
+     * @throws NumberFormatException if a value is not a number
+     */
+    public static long[] parseLongs(CharSequence text, char separator) {
+        long[] numbers = new long[16];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || isSeparator(text.charAt(i), separator)) {
+                if (!isBlank(text, start, i)) {
+                    if (count == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, count * 2);
+                    }
+                    numbers[count++] = parseLong(text, start, i);
+                }
+                start = i + 1;
+            }
+        }
+        return Arrays.copyOf(numbers, count);
+    }
+
+    /**
+     * Parse the double without creating a String. Decimals of up to 18 significant digits and exponents
+     * up to 22 are computed exactly by one multiplication or division, other values fall back to {@link Double#parseDouble}
+     * @param text The text
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @return The number, correctly rounded
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static double parseDouble(CharSequence text, int from, int to) {
+        int start = skipWhitespace(text, from, to);
+        int end = trimWhitespace(text, start, to);
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int digits = 0;
+        int fraction = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (point) {
+                    fraction++;
+                }
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significant++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        int exponent = 0;
+        if (i < end && digits > 0 && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = i < end && text.charAt(i) == '-';
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9' && i - exponentStart < 6; i++) {
+                exponent = exponent * 10 + (text.charAt(i) - '0');
+            }
+            if (i == exponentStart) {
+                return Double.parseDouble(text.subSequence(start, end).toString());
+            }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        if (i != end || digits == 0 || significant > MAX_SIGNIFICANT_DIGITS) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        int power = exponent - fraction;
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (mantissa < 1L << 53 && power >= 0 && power < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[power];
+        } else if (mantissa < 1L << 53 && power < 0 && -power < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-power];
+        } else {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse the long without creating a String
+     * @param text The text
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @return The number
+     * @throws NumberFormatException if the text is not a number or doesn't fit long
+     */
+    public static long parseLong(CharSequence text, int from, int to) {
+        int start = skipWhitespace(text, from, to);
+        int end = trimWhitespace(text, start, to);
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == end || end - i > MAX_SIGNIFICANT_DIGITS) {
+            return Long.parseLong(text.subSequence(start, end).toString());
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(String.format("For input string: \"%1$s\"", text.subSequence(start, end)));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Check if the numbers are sorted
+     * @param values The numbers
+     * @param ascending true - ascending order, false - descending order
+     * @param strict true - equal neighbours are not allowed
+     * @return true - if the numbers are sorted
+     */
+    public static boolean isSorted(double[] values, boolean ascending, boolean strict) {
+        return range(values.length - 1).allMatch(i -> {
+            int compare = Double.compare(values[i], values[i + 1]);
+            return ascending ? compare < 0 || (!strict && compare == 0) : compare > 0 || (!strict && compare == 0);
+        });
+    }
+
+    /**
+     * Check if the numbers are sorted
+     * @param values The numbers
+     * @param ascending true - ascending order, false - descending order
+     * @param strict true - equal neighbours are not allowed
+     * @return true - if the numbers are sorted
+     */
+    public static boolean isSorted(long[] values, boolean ascending, boolean strict) {
+        return range(values.length - 1).allMatch(i -> {
+            int compare = Long.compare(values[i], values[i + 1]);
+            return ascending ? compare < 0 || (!strict && compare == 0) : compare > 0 || (!strict && compare == 0);
+        });
+    }
+
+    /**
+     * Check if the numbers are monotonic: sorted ascending or descending
+     * @param values The numbers
+     * @return true - if the numbers don't decrease or don't increase
+     */
+    public static boolean isMonotonic(double[] values) {
+        return isSorted(values, true, false) || isSorted(values, false, false);
+    }
+
+    /**
+     * Check if the numbers are monotonic: sorted ascending or descending
+     * @param values The numbers
+     * @return true - if the numbers don't decrease or don't increase
+     */
+    public static boolean isMonotonic(long[] values) {
+        return isSorted(values, true, false) || isSorted(values, false, false);
+    }
+
+    public static double min(double[] values) {
+        return stream(requireNotEmpty(values)).min().getAsDouble();
+    }
+
+    public static double max(double[] values) {
+        return stream(requireNotEmpty(values)).max().getAsDouble();
+    }
+
+    public static long min(long[] values) {
+        return stream(requireNotEmpty(values)).min().getAsLong();
+    }
+
+    public static long max(long[] values) {
+        return stream(requireNotEmpty(values)).max().getAsLong();
+    }
+
+    /**
+     * Get the sum, computed with compensation of rounding errors
+     * @param values The numbers
+     * @return The sum, 0 for no numbers
+     */
+    public static double sum(double[] values) {
+        return stream(values).sum();
+    }
+
+    /**
+     * Get the sum
+     * @param values The numbers
+     * @return The sum, 0 for no numbers
+     * @throws ArithmeticException if the sum doesn't fit long
+     */
+    public static long sum(long[] values) {
+        return stream(values).reduce(0, Math::addExact);
+    }
+
+    public static double mean(double[] values) {
+        return sum(requireNotEmpty(values)) / values.length;
+    }
+
+    /**
+     * Get the percentiles, linearly interpolated between the closest ranks. The array is not modified
+     * @param values The numbers
+     * @param percentiles The percentiles from 0 to 100, e.g. 50, 95, 99
+     * @return The values of the percentiles in the same order
+     */
+    public static double[] percentiles(double[] values, double... percentiles) {
+        double[] sorted = requireNotEmpty(values).clone();
+        if (sorted.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(sorted);
+        } else {
+            Arrays.sort(sorted);
+        }
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            if (percentiles[i] < 0 || percentiles[i] > 100) {
+                throw new IllegalArgumentException(String.format("Incorrect percentile: %1$s", percentiles[i]));
+            }
+            double rank = percentiles[i] / 100 * (sorted.length - 1);
+            int lower = (int) rank;
+            int upper = Math.min(lower + 1, sorted.length - 1);
+            result[i] = sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+        }
+        return result;
+    }
+
+    public static double percentile(double[] values, double percentile) {
+        return percentiles(values, percentile)[0];
+    }
+
+    private static IntStream range(int size) {
+        IntStream range = IntStream.range(0, Math.max(0, size));
+        return size >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+
+    private static DoubleStream stream(double[] values) {
+        DoubleStream stream = Arrays.stream(values);
+        return values.length >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    private static LongStream stream(long[] values) {
+        LongStream stream = Arrays.stream(values);
+        return values.length >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    private static double[] requireNotEmpty(double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No numbers");
+        }
+        return values;
+    }
+
+    private static long[] requireNotEmpty(long[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No numbers");
+        }
+        return values;
+    }
+
+    private static boolean isSeparator(char c, char separator) {
+        return c == separator || c == '\n' || c == '\r';
+    }
+
+    private static boolean isBlank(CharSequence text, int from, int to) {
+        return skipWhitespace(text, from, to) == to;
+    }
+
+    private static int skipWhitespace(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimWhitespace(CharSequence text, int from, int to) {
+        int i = to;
+        while (i > from && Character.isWhitespace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+}
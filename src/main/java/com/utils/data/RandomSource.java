@@ -0,0 +1,218 @@
+package com.utils.data;
+
+import aquality.selenium.core.logging.Logger;
+import com.utils.ConfigManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Random generators of the run. Every thread has its own generator, so threads don't contend.
+ * The generator of a thread is seeded from the run seed, the name of the thread and the number of threads
+ * with the same name seeded before it, so a failed run can be reproduced by setting data.seed to the seed written to the log.
+ * The data is reproduced only if the threads have deterministic names, e.g. the names of pool threads set by a thread factory,
+ * and the threads of the same name take their generators in the same order. Otherwise use {@link #forStream(long)}
+ */
+public final class RandomSource {
+    public static final String ALPHABETIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    public static final String NUMERIC = "0123456789";
+    public static final String ALPHANUMERIC = ALPHABETIC + NUMERIC;
+    private static final Logger logger = Logger.getInstance();
+    private static final ThreadLocal<Generator> generators = new ThreadLocal<>();
+    private static final Map<String, AtomicLong> threadsByName = new ConcurrentHashMap<>();
+    private static volatile long seed;
+    private static volatile int generation;
+
+    private RandomSource() {}
+
+    /**
+     * Set the seed of the run. Generators of all the threads are re-seeded on their next use
+     * @param runSeed The seed
+     */
+    public static synchronized void setSeed(long runSeed) {
+        seed = runSeed;
+        threadsByName.clear();
+        generation++;
+        logger.info(String.format("Random data seed: %1$s", runSeed));
+    }
+
+    /**
+     * Get the seed of the run. It is read from data.seed on the first use, a random one is taken if it is not set
+     * @return The seed
+     * @throws IllegalArgumentException if data.seed is not a number
+     */
+    public static long getSeed() {
+        ensureSeeded();
+        return seed;
+    }
+
+    /**
+     * Get the generator of the current thread
+     * @return Generator, must not be passed to other threads, use {@link #split()} for them
+     */
+    public static SplittableRandom current() {
+        ensureSeeded();
+        Generator generator = generators.get();
+        if (generator == null || generator.generation != generation) {
+            String name = Thread.currentThread().getName();
+            long sameName = threadsByName.computeIfAbsent(name, n -> new AtomicLong()).getAndIncrement();
+            generator = new Generator(generation, new SplittableRandom(mix(seed ^ mix(name.hashCode() + mix(sameName)))));
+            generators.set(generator);
+        }
+        return generator.random;
+    }
+
+    /**
+     * Get a new independent generator for a task, e.g. a chunk of work executed by another thread
+     * @return Generator split from the generator of the current thread
+     */
+    public static SplittableRandom split() {
+        return current().split();
+    }
+
+    /**
+     * Get a generator for the stream of the run, e.g. the partition of a dataset.
+     * It depends only on the run seed and the index, not on the thread it is used by
+     * @param stream The index of the stream
+     * @return Generator of the stream
+     */
+    public static SplittableRandom forStream(long stream) {
+        ensureSeeded();
+        return new SplittableRandom(mix(seed + mix(stream + 1)));
+    }
+
+    /**
+     * Generate random number
+     * @param bound The upper bound (exclusive)
+     * @return Random number from 0 to bound
+     */
+    public static int nextInt(int bound) {
+        return current().nextInt(bound);
+    }
+
+    /**
+     * Generate random String from the characters of the alphabet
+     * @param length The length of the String
+     * @param alphabet The characters to use
+     * @return Random String
+     */
+    public static String nextString(int length, String alphabet) {
+        char[] chars = new char[length];
+        fill(current(), chars, 0, length, alphabet);
+        return new String(chars);
+    }
+
+    /**
+     * Generate random Strings of the same length, the buffer of characters is shared by all of them
+     * @param count The number of Strings
+     * @param length The length of each String
+     * @param alphabet The characters to use
+     * @return List of random Strings
+     */
+    public static List<String> nextStrings(int count, int length, String alphabet) {
+        SplittableRandom random = current();
+        List<String> strings = new ArrayList<>(count);
+        char[] chars = new char[length];
+        for (int i = 0; i < count; i++) {
+            fill(random, chars, 0, length, alphabet);
+            strings.add(new String(chars));
+        }
+        return strings;
+    }
+
+    /**
+     * Fill the array with random characters of the alphabet
+     * @param target The array to fill
+     * @param alphabet The characters to use
+     */
+    public static void fill(char[] target, String alphabet) {
+        fill(current(), target, 0, target.length, alphabet);
+    }
+
+    /**
+     * Fill the range of the array with random characters of the alphabet.
+     * Every random long gives two characters, the bias of the choice is below alphabet size / 2^32
+     * @param random The generator
+     * @param target The array to fill
+     * @param from The first index (inclusive)
+     * @param to The last index (exclusive)
+     * @param alphabet The characters to use
+     */
+    public static void fill(SplittableRandom random, char[] target, int from, int to, String alphabet) {
+        long size = alphabet.length();
+        int i = from;
+        for (; i + 1 < to; i += 2) {
+            long bits = random.nextLong();
+            target[i] = alphabet.charAt((int) (((bits >>> 32) * size) >>> 32));
+            target[i + 1] = alphabet.charAt((int) (((bits & 0xFFFFFFFFL) * size) >>> 32));
+        }
+        if (i < to) {
+            target[i] = alphabet.charAt((int) (((random.nextLong() >>> 32) * size) >>> 32));
+        }
+    }
+
+    /**
+     * Fill the array with random numbers
+     * @param target The array to fill
+     * @param origin The lower bound (inclusive)
+     * @param bound The upper bound (exclusive)
+     */
+    public static void fill(int[] target, int origin, int bound) {
+        SplittableRandom random = current();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = random.nextInt(origin, bound);
+        }
+    }
+
+    private static void ensureSeeded() {
+        if (generation == 0) {
+            synchronized (RandomSource.class) {
+                if (generation == 0) {
+                    setSeed(configuredSeed());
+                }
+            }
+        }
+    }
+
+    private static long configuredSeed() {
+        String configured;
+        try {
+            configured = ConfigManager.getInstance().getConfiguration().getString("data.seed", "");
+        } catch (RuntimeException ex) {
+            logger.warn(String.format("Configuration can't be loaded, random data seed is not configured%n%1$s", ex.getMessage()));
+            configured = "";
+        }
+        if (configured.isBlank()) {
+            return System.nanoTime() ^ System.currentTimeMillis();
+        }
+        try {
+            return Long.parseLong(configured.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format(
+                    "Incorrect data.seed '%1$s': it must be a whole number, e.g. the seed written to the log of the run to reproduce", configured));
+        }
+    }
+
+    private static long mix(long value) {
+        long h = value + 0x9e3779b97f4a7c15L;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Generator of a thread and the generation of the seed it is created from
+     */
+    private static final class Generator {
+        private final int generation;
+        private final SplittableRandom random;
+
+        private Generator(int generation, SplittableRandom random) {
+            this.generation = generation;
+            this.random = random;
+        }
+    }
+}
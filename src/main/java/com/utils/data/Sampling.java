@@ -0,0 +1,165 @@
+package com.utils.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Random sampling without replacement. The cost depends on the size of the sample, not of the source,
+ * where the source allows it
+ */
+public final class Sampling {
+    private Sampling() {}
+
+    /**
+     * Get random elements of the list in random order.
+     * Random access lists are sampled by partial Fisher-Yates shuffle of the indexes: O(n) time and memory.
+     * Other lists are read once by reservoir sampling
+     * @param list The list to get elements from, it is not modified
+     * @param n The number of elements, n <= list.size()
+     * @param random The generator
+     * @param <T> The type of elements
+     * @return New list of n random elements
+     */
+    public static <T> List<T> sample(List<T> list, int n, SplittableRandom random) {
+        int size = list.size();
+        if (n < 0 || n > size) {
+            throw new IllegalArgumentException(String.format("Can't get %1$s random elements from %2$s", n, size));
+        }
+        if (!(list instanceof RandomAccess)) {
+            return sample(list.iterator(), n, random);
+        }
+        List<T> sample = new ArrayList<>(n);
+        if (n > size / 4) {
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            for (int i = 0; i < n; i++) {
+                int j = random.nextInt(i, size);
+                int index = indexes[j];
+                indexes[j] = indexes[i];
+                sample.add(list.get(index));
+            }
+            return sample;
+        }
+        Map<Integer, Integer> swapped = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i, size);
+            Integer index = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+            sample.add(list.get(index));
+        }
+        return sample;
+    }
+
+    /**
+     * Get random elements of the source of unknown length in one pass, e.g. rows of a result set.
+     * Reservoir sampling with geometric skips (algorithm L): O(n) memory, random numbers are drawn only for the taken elements
+     * @param source The source to read
+     * @param n The number of elements
+     * @param random The generator
+     * @param <T> The type of elements
+     * @return New list of min(n, length of the source) random elements in random order
+     */
+    public static <T> List<T> sample(Iterator<T> source, int n, SplittableRandom random) {
+        if (n < 0) {
+            throw new IllegalArgumentException(String.format("Can't get %1$s random elements", n));
+        }
+        List<T> reservoir = new ArrayList<>(n);
+        while (reservoir.size() < n && source.hasNext()) {
+            reservoir.add(source.next());
+        }
+        double w = Math.exp(Math.log(nextOpen(random)) / n);
+        while (n > 0 && source.hasNext()) {
+            long skip = (long) Math.floor(Math.log(nextOpen(random)) / Math.log1p(-w));
+            for (long i = 0; i < skip && source.hasNext(); i++) {
+                source.next();
+            }
+            if (source.hasNext()) {
+                reservoir.set(random.nextInt(n), source.next());
+                w *= Math.exp(Math.log(nextOpen(random)) / n);
+            }
+        }
+        shuffle(reservoir, random);
+        return reservoir;
+    }
+
+    /**
+     * Get random elements, the chance of an element is proportional to its weight.
+     * Efraimidis-Spirakis sampling: one pass, O(N log n) time and O(n) memory
+     * @param elements The elements
+     * @param weight The weight of an element, elements with zero weight are never taken
+     * @param n The number of elements
+     * @param random The generator
+     * @param <T> The type of elements
+     * @return New list of min(n, number of elements with positive weight) elements, the heavier first on average
+     */
+    public static <T> List<T> weighted(Iterable<T> elements, ToDoubleFunction<? super T> weight, int n, SplittableRandom random) {
+        if (n < 0) {
+            throw new IllegalArgumentException(String.format("Can't get %1$s random elements", n));
+        }
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Keyed<T>> heap = new PriorityQueue<>(n);
+        for (T element : elements) {
+            double w = weight.applyAsDouble(element);
+            if (w < 0 || Double.isNaN(w)) {
+                throw new IllegalArgumentException(String.format("Incorrect weight of %1$s: %2$s", element, w));
+            }
+            if (w == 0) {
+                continue;
+            }
+            double key = Math.log(nextOpen(random)) / w;
+            if (heap.size() < n) {
+                heap.add(new Keyed<>(key, element));
+            } else if (key > heap.peek().key) {
+                heap.poll();
+                heap.add(new Keyed<>(key, element));
+            }
+        }
+        List<T> sample = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            sample.add(heap.poll().element);
+        }
+        Collections.reverse(sample);
+        return sample;
+    }
+
+    private static <T> void shuffle(List<T> list, SplittableRandom random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static double nextOpen(SplittableRandom random) {
+        double u = random.nextDouble();
+        return u == 0 ? Double.MIN_VALUE : u;
+    }
+
+    /**
+     * Element with its random key, the heap keeps the elements with the largest keys
+     */
+    private static final class Keyed<T> implements Comparable<Keyed<T>> {
+        private final double key;
+        private final T element;
+
+        private Keyed(double key, T element) {
+            this.key = key;
+            this.element = element;
+        }
+
+        @Override
+        public int compareTo(Keyed<T> other) {
+            return Double.compare(key, other.key);
+        }
+    }
+}
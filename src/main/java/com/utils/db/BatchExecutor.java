@@ -0,0 +1,188 @@
+package com.utils.db;
+
+import org.apache.log4j.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Class for executing many writes in JDBC batches inside one transaction
+ */
+public class BatchExecutor {
+    private static final Logger LOGGER = Logger.getLogger(BatchExecutor.class.getName());
+    private final ConnectionPool pool;
+    private final int batchSize;
+    private final int maxParameters;
+
+    /**
+     * @param pool Pool to lease connection from
+     * @param batchSize Number of rows sent to database in one batch
+     * @param maxParameters Max number of bound parameters in one multi-row statement
+     */
+    public BatchExecutor(ConnectionPool pool, int batchSize, int maxParameters) {
+        if (batchSize < 1 || maxParameters < 1) {
+            throw new IllegalArgumentException(String.format("Incorrect batch settings: size=%1$s, maxParameters=%2$s", batchSize, maxParameters));
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxParameters = maxParameters;
+    }
+
+    /**
+     * Execute parameterized statement for every row
+     * @param sqlQuery The query with "?" placeholders
+     * @param rows Values bound to the placeholders, one array per row
+     * @return Counts and timing of executed batches
+     * @throws SQLException if any batch fails. The whole transaction is rolled back
+     */
+    public BatchResult execute(String sqlQuery, Stream<Object[]> rows) throws SQLException {
+        return inTransaction(connection -> {
+            BatchResult result = new BatchResult();
+            try (PreparedStatement statement = connection.prepareStatement(sqlQuery)) {
+                Iterator<List<Object[]>> chunks = chunks(rows.iterator(), batchSize);
+                while (chunks.hasNext()) {
+                    List<Object[]> chunk = chunks.next();
+                    long start = System.nanoTime();
+                    for (Object[] row : chunk) {
+                        bind(statement, row, 0);
+                        statement.addBatch();
+                    }
+                    record(result, chunk.size(), sum(statement.executeBatch()), start);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Execute plain SQL statements
+     * @param sqlQueries The queries to be executed
+     * @return Counts and timing of executed batches
+     * @throws SQLException if any batch fails. The whole transaction is rolled back
+     */
+    public BatchResult executeStatements(Stream<String> sqlQueries) throws SQLException {
+        return inTransaction(connection -> {
+            BatchResult result = new BatchResult();
+            try (Statement statement = connection.createStatement()) {
+                Iterator<List<String>> chunks = chunks(sqlQueries.iterator(), batchSize);
+                while (chunks.hasNext()) {
+                    List<String> chunk = chunks.next();
+                    long start = System.nanoTime();
+                    for (String sql : chunk) {
+                        statement.addBatch(sql);
+                    }
+                    record(result, chunk.size(), sum(statement.executeBatch()), start);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Insert rows into the table
+     * @param table The table to insert data
+     * @param columns The columns to insert data
+     * @param rows Values of columns, one array per row
+     * @param multiRowValues true - to rewrite rows to multi-row "VALUES (..), (..)" statements,
+     *                       false - to send one statement per row in JDBC batches
+     * @return Counts and timing of executed batches
+     * @throws SQLException if any batch fails. The whole transaction is rolled back
+     */
+    public BatchResult insert(String table, List<String> columns, Stream<Object[]> rows, boolean multiRowValues) throws SQLException {
+        if (!multiRowValues) {
+            return execute(insertSql(table, columns, 1), rows);
+        }
+        int rowsPerStatement = Math.max(1, Math.min(batchSize, maxParameters / Math.max(1, columns.size())));
+        return inTransaction(connection -> {
+            BatchResult result = new BatchResult();
+            Iterator<List<Object[]>> chunks = chunks(rows.iterator(), rowsPerStatement);
+            while (chunks.hasNext()) {
+                List<Object[]> chunk = chunks.next();
+                long start = System.nanoTime();
+                try (PreparedStatement statement = connection.prepareStatement(insertSql(table, columns, chunk.size()))) {
+                    int offset = 0;
+                    for (Object[] row : chunk) {
+                        bind(statement, row, offset);
+                        offset += row.length;
+                    }
+                    record(result, chunk.size(), statement.executeUpdate(), start);
+                }
+            }
+            return result;
+        });
+    }
+
+    private BatchResult inTransaction(Work work) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = pool.acquire()) {
+            connection.setAutoCommit(false);
+            try {
+                BatchResult result = work.run(connection);
+                connection.commit();
+                result.setDurationMs((System.nanoTime() - start) / 1_000_000);
+                LOGGER.info(String.format("Batch write is committed: %1$s", result));
+                return result;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    private static void record(BatchResult result, int rows, long affected, long start) {
+        BatchResult.Batch batch = new BatchResult.Batch(result.getBatches().size() + 1, rows, affected, (System.nanoTime() - start) / 1_000_000);
+        result.add(batch);
+        LOGGER.debug(batch.toString());
+    }
+
+    private static String insertSql(String table, List<String> columns, int rows) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        return String.format("INSERT INTO %1$s (%2$s) VALUES %3$s", table, String.join(", ", columns),
+                String.join(", ", Collections.nCopies(rows, row)));
+    }
+
+    private static void bind(PreparedStatement statement, Object[] row, int offset) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            statement.setObject(offset + i + 1, row[i]);
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                sum += count;
+            }
+        }
+        return sum;
+    }
+
+    private static <T> Iterator<List<T>> chunks(Iterator<T> source, int size) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                List<T> chunk = new ArrayList<>(size);
+                while (source.hasNext() && chunk.size() < size) {
+                    chunk.add(source.next());
+                }
+                return chunk;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        BatchResult run(Connection connection) throws SQLException;
+    }
+}
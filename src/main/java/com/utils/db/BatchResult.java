@@ -0,0 +1,92 @@
+package com.utils.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of batched write: counts and timing of every executed JDBC batch
+ */
+public final class BatchResult {
+    private final List<Batch> batches = new ArrayList<>();
+    private long durationMs;
+
+    void add(Batch batch) {
+        batches.add(batch);
+    }
+
+    void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<Batch> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
+    /**
+     * Get number of rows (or statements) sent to database
+     * @return Number of rows
+     */
+    public long getRows() {
+        return batches.stream().mapToLong(Batch::getRows).sum();
+    }
+
+    /**
+     * Get number of rows affected as reported by the driver. Rows with unknown count are not included
+     * @return Number of affected rows
+     */
+    public long getAffectedRows() {
+        return batches.stream().mapToLong(Batch::getAffectedRows).sum();
+    }
+
+    /**
+     * Get duration of the whole operation including commit
+     * @return Duration in milliseconds
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%1$s batches, %2$s rows, %3$s affected, %4$s ms", batches.size(), getRows(), getAffectedRows(), durationMs);
+    }
+
+    /**
+     * Counts and timing of one JDBC batch
+     */
+    public static final class Batch {
+        private final int index;
+        private final int rows;
+        private final long affectedRows;
+        private final long durationMs;
+
+        Batch(int index, int rows, long affectedRows, long durationMs) {
+            this.index = index;
+            this.rows = rows;
+            this.affectedRows = affectedRows;
+            this.durationMs = durationMs;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getAffectedRows() {
+            return affectedRows;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Batch #%1$s: %2$s rows, %3$s affected, %4$s ms", index, rows, affectedRows, durationMs);
+        }
+    }
+}
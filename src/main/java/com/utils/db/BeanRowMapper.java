@@ -0,0 +1,148 @@
+package com.utils.db;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps rows to beans through fields. Reflection lookups are done once per class,
+ * column to field binding is resolved once per ResultSet.
+ * An instance is not thread-safe, use one instance per stream
+ * @param <T> The type of bean
+ */
+final class BeanRowMapper<T> implements RowMapper<T> {
+    private static final ClassValue<BeanInfo> BEANS = new ClassValue<>() {
+        @Override
+        protected BeanInfo computeValue(Class<?> type) {
+            return new BeanInfo(type);
+        }
+    };
+    private final Class<T> tClass;
+    private ResultSet boundTo;
+    private List<Binding> bindings;
+
+    BeanRowMapper(Class<T> tClass) {
+        this.tClass = tClass;
+    }
+
+    @Override
+    public T map(ResultSet rs, int rowNum) throws SQLException {
+        BeanInfo info = BEANS.get(tClass);
+        if (rs != boundTo) {
+            bindings = info.bind(rs.getMetaData());
+            boundTo = rs;
+        }
+        T bean = tClass.cast(info.newInstance());
+        for (Binding binding : bindings) {
+            binding.set(bean, rs);
+        }
+        return bean;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+
+    /**
+     * Reflection data of bean class
+     */
+    private static final class BeanInfo {
+        private final Constructor<?> constructor;
+        private final Map<String, Field> fields = new HashMap<>();
+
+        private BeanInfo(Class<?> type) {
+            try {
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException(String.format("Class %1$s has no constructor without parameters", type.getName()), ex);
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.putIfAbsent(normalize(field.getName()), field);
+                    }
+                }
+            }
+        }
+
+        private Object newInstance() throws SQLException {
+            try {
+                return constructor.newInstance();
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+                throw new SQLException(String.format("Can't create %1$s", constructor.getDeclaringClass().getName()), ex);
+            }
+        }
+
+        private List<Binding> bind(ResultSetMetaData metaData) throws SQLException {
+            List<Binding> bindings = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                Field field = fields.get(normalize(metaData.getColumnLabel(i)));
+                if (field != null) {
+                    bindings.add(new Binding(i, field));
+                }
+            }
+            return Collections.unmodifiableList(bindings);
+        }
+    }
+
+    /**
+     * Binding of column index to field
+     */
+    private static final class Binding {
+        private final int column;
+        private final Field field;
+        private final Class<?> type;
+
+        private Binding(int column, Field field) {
+            this.column = column;
+            this.field = field;
+            this.type = boxed(field.getType());
+        }
+
+        private void set(Object bean, ResultSet rs) throws SQLException {
+            Object value = rs.getObject(column, type);
+            if (value == null && field.getType().isPrimitive()) {
+                return;
+            }
+            try {
+                field.set(bean, value);
+            } catch (IllegalAccessException ex) {
+                throw new SQLException(String.format("Can't set field %1$s", field.getName()), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.utils.db;
+
+import org.apache.log4j.Logger;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of JDBC connections.
+ * Connections are leased per call and returned to the pool when the leased connection is closed
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final long HOUSEKEEPING_PERIOD_MS = 5000;
+    private final PoolSettings settings;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, Lease> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(PoolSettings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        for (int i = 0; i < settings.getMinSize(); i++) {
+            try {
+                idle.offer(create());
+            } catch (SQLException ex) {
+                LOGGER.error(String.format("Can't get connection. Incorrect URL%n%1$s", ex.getMessage()));
+                break;
+            }
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeeping, HOUSEKEEPING_PERIOD_MS, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+        LOGGER.info(String.format("Connection pool to %1$s is created (min=%2$s, max=%3$s)",
+                settings.getUrl(), settings.getMinSize(), settings.getMaxSize()));
+    }
+
+    /**
+     * Lease connection from the pool. The connection must be closed to return it to the pool
+     * @return Leased connection
+     * @throws SQLException if the pool is closed, the timeout is expired or the connection can't be created
+     */
+    public Connection acquire() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(settings.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format("Can't acquire connection in %1$s ms (active=%2$s, max=%3$s)",
+                        settings.getAcquireTimeout().toMillis(), getActiveCount(), settings.getMaxSize()));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for connection", ex);
+        }
+        try {
+            PooledConnection pooled = takeValid();
+            leased.put(pooled, new Lease(!settings.getLeakDetectionThreshold().isZero()));
+            return pooled.lease(this);
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Get number of leased connections
+     * @return Number of leased connections
+     */
+    public int getActiveCount() {
+        return leased.size();
+    }
+
+    /**
+     * Get number of idle connections
+     * @return Number of idle connections
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Get number of opened connections
+     * @return Number of opened connections
+     */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    public PoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Close all idle connections and stop accepting new leases. Leased connections are closed when returned
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            destroy(pooled);
+        }
+        if (!leased.isEmpty()) {
+            LOGGER.warn(String.format("Connection pool is closed with %1$s leased connections", leased.size()));
+        }
+    }
+
+    void release(PooledConnection pooled, boolean broken) {
+        leased.remove(pooled);
+        try {
+            if (closed.get() || broken || pooled.getRaw().isClosed()) {
+                destroy(pooled);
+            } else {
+                pooled.reset();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("Connection is discarded%n%1$s", ex.getMessage()));
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection takeValid() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            LOGGER.warn("Idle connection failed validation and is discarded");
+            destroy(pooled);
+        }
+        return create();
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        Connection raw = pooled.getRaw();
+        try {
+            if (settings.getValidationQuery().isBlank()) {
+                return raw.isValid(settings.getValidationTimeoutSeconds());
+            }
+            try (Statement statement = raw.createStatement()) {
+                statement.setQueryTimeout(settings.getValidationTimeoutSeconds());
+                statement.execute(settings.getValidationQuery());
+                return true;
+            }
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        LOGGER.info(String.format("Set connection to %1$s", settings.getUrl()));
+        Connection raw = DriverManager.getConnection(settings.getUrl(), settings.getUser(), settings.getPassword());
+        total.incrementAndGet();
+        return new PooledConnection(raw, settings.getStatementCacheSize());
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.closeStatements();
+            pooled.getRaw().close();
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("Can't close connection%n%1$s", ex.getMessage()));
+        }
+    }
+
+    private void housekeeping() {
+        long now = System.nanoTime();
+        long idleTimeout = settings.getIdleTimeout().toNanos();
+        if (idleTimeout > 0) {
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && total.get() > settings.getMinSize()) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.getLastUsed() > idleTimeout && idle.remove(pooled)) {
+                    LOGGER.info("Idle connection is evicted");
+                    destroy(pooled);
+                }
+            }
+        }
+        long leakThreshold = settings.getLeakDetectionThreshold().toNanos();
+        if (leakThreshold > 0) {
+            leased.values().stream()
+                    .filter(lease -> !lease.reported && now - lease.since > leakThreshold)
+                    .forEach(lease -> {
+                        lease.reported = true;
+                        LOGGER.warn(String.format("Possible connection leak: connection is leased by thread %1$s for more than %2$s ms",
+                                lease.thread, settings.getLeakDetectionThreshold().toMillis()), lease.origin);
+                    });
+        }
+    }
+
+    /**
+     * Information about the connection lease, used for leak detection
+     */
+    private static final class Lease {
+        private final long since = System.nanoTime();
+        private final String thread = Thread.currentThread().getName();
+        private final Throwable origin;
+        private volatile boolean reported;
+
+        /**
+         * @param trace true - to capture the stack trace of the lease, it is needed only for leak detection
+         */
+        private Lease(boolean trace) {
+            origin = trace ? new Throwable("Connection lease stack trace") : null;
+        }
+    }
+
+    /**
+     * Physical connection owned by the pool
+     */
+    static final class PooledConnection {
+        private final Connection raw;
+        private final StatementCache statementCache;
+        private final boolean readOnly;
+        private final int transactionIsolation;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledConnection(Connection raw, int statementCacheSize) throws SQLException {
+            this.raw = raw;
+            this.statementCache = statementCacheSize > 0 ? new StatementCache(raw, statementCacheSize) : null;
+            this.readOnly = raw.isReadOnly();
+            this.transactionIsolation = raw.getTransactionIsolation();
+        }
+
+        Connection getRaw() {
+            return raw;
+        }
+
+        StatementCache getStatementCache() {
+            return statementCache;
+        }
+
+        void closeStatements() {
+            if (statementCache != null) {
+                statementCache.clear();
+            }
+        }
+
+        long getLastUsed() {
+            return lastUsed;
+        }
+
+        Connection lease(ConnectionPool pool) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(pool, this));
+        }
+
+        /**
+         * Roll back the open transaction and restore the settings the connection was created with, so one lease doesn't affect the next
+         * @throws SQLException if the connection can't be reset, then it is discarded
+         */
+        void reset() throws SQLException {
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (raw.isReadOnly() != readOnly) {
+                raw.setReadOnly(readOnly);
+            }
+            if (raw.getTransactionIsolation() != transactionIsolation) {
+                raw.setTransactionIsolation(transactionIsolation);
+            }
+            raw.clearWarnings();
+            lastUsed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Delegates calls to the physical connection and returns it to the pool on close
+     */
+    private static final class LeaseHandler implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final PooledConnection pooled;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean broken;
+
+        private LeaseHandler(ConnectionPool pool, PooledConnection pooled) {
+            this.pool = pool;
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        pool.release(pooled, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || pooled.getRaw().isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Leased " + pooled.getRaw();
+                case "prepareStatement":
+                    if (args.length == 1 && pooled.getStatementCache() != null && !released.get()) {
+                        return pooled.getStatementCache().prepare((String) args[0]);
+                    }
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(pooled.getRaw())) {
+                        return pooled.getRaw();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (released.get()) {
+                throw new SQLException("Connection is returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.getRaw(), args);
+            } catch (InvocationTargetException ex) {
+                if (ex.getCause() instanceof SQLException && isFatal((SQLException) ex.getCause())) {
+                    broken = true;
+                }
+                throw ex.getCause();
+            }
+        }
+
+        private static boolean isFatal(SQLException ex) {
+            String state = ex.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
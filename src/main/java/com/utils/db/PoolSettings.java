@@ -0,0 +1,107 @@
+package com.utils.db;
+
+import com.utils.config.Configuration;
+import java.time.Duration;
+
+/**
+ * Settings of the database connection pool, read from config.properties
+ */
+public final class PoolSettings {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final Duration acquireTimeout;
+    private final Duration idleTimeout;
+    private final Duration leakDetectionThreshold;
+    private final String validationQuery;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private PoolSettings(Configuration config) {
+        url = config.getString("connectionPath");
+        user = config.getString("user");
+        password = config.getString("password");
+        minSize = config.getInt("db.pool.minSize", 1);
+        maxSize = config.getInt("db.pool.maxSize", 10);
+        acquireTimeout = config.getDuration("db.pool.acquireTimeout", Duration.ofSeconds(30));
+        idleTimeout = config.getDuration("db.pool.idleTimeout", Duration.ofMinutes(10));
+        leakDetectionThreshold = config.getDuration("db.pool.leakDetectionThreshold", Duration.ZERO);
+        validationQuery = config.getString("db.pool.validationQuery", "");
+        validationTimeoutSeconds = config.getInt("db.pool.validationTimeoutSeconds", 5);
+        statementCacheSize = config.getInt("db.pool.statementCacheSize", 50);
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException(String.format("Incorrect pool size: min=%1$s, max=%2$s", minSize, maxSize));
+        }
+    }
+
+    /**
+     * Read pool settings from the configuration snapshot
+     * @param config Configuration snapshot
+     * @return Pool settings
+     */
+    public static PoolSettings from(Configuration config) {
+        return new PoolSettings(config);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * Idle connections above the min size are closed after this timeout. Zero disables eviction
+     * @return Idle timeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Connections leased longer than this threshold are reported as possible leaks. Zero disables detection
+     * @return Leak detection threshold
+     */
+    public Duration getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * Query used to validate connection before lease. If empty, {@link java.sql.Connection#isValid(int)} is used
+     * @return Validation query
+     */
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    /**
+     * Number of prepared statements cached per connection. Zero disables the cache
+     * @return Statement cache size
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+}
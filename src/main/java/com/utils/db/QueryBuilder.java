@@ -0,0 +1,81 @@
+package com.utils.db;
+
+/**
+ * Builds SQL for existence checks, aggregates and top-N queries,
+ * so the work is done by database instead of scanning the result on the client side
+ */
+public class QueryBuilder {
+    private final SqlDialect dialect;
+
+    public QueryBuilder(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Build query returning at most one row if any row matches the conditions
+     * @param table The table to check
+     * @param conditions Conditions, may be null or empty
+     * @return SQL query
+     */
+    public String exists(String table, String conditions) {
+        return dialect.limit(select("1", table, conditions), 1);
+    }
+
+    /**
+     * Build query counting rows matching the conditions
+     * @param table The table to count rows
+     * @param conditions Conditions, may be null or empty
+     * @return SQL query
+     */
+    public String count(String table, String conditions) {
+        return select("COUNT(*)", table, conditions);
+    }
+
+    /**
+     * Build aggregate query
+     * @param function Aggregate function
+     * @param columnName The column to aggregate
+     * @param table The table to get data
+     * @param conditions Conditions, may be null or empty
+     * @return SQL query
+     */
+    public String aggregate(Aggregate function, String columnName, String table, String conditions) {
+        return select(String.format("%1$s(%2$s)", function.name(), columnName), table, conditions);
+    }
+
+    /**
+     * Build query returning top n rows
+     * @param columnName The columns to get data
+     * @param table The table to get data
+     * @param conditions Conditions, may be null or empty
+     * @param orderBy Order of rows, may be null or empty
+     * @param rows Number of rows
+     * @return SQL query
+     */
+    public String top(String columnName, String table, String conditions, String orderBy, int rows) {
+        String select = select(columnName, table, conditions);
+        if (orderBy != null && !orderBy.isBlank()) {
+            select = String.format("%1$s ORDER BY %2$s", select, orderBy);
+        }
+        return dialect.limit(select, rows);
+    }
+
+    private static String select(String columnName, String table, String conditions) {
+        String select = String.format("SELECT %1$s FROM %2$s", columnName, table);
+        if (conditions != null && !conditions.isBlank()) {
+            select = String.format("%1$s WHERE %2$s", select, conditions);
+        }
+        return select;
+    }
+
+    /**
+     * Supported aggregate functions
+     */
+    public enum Aggregate {
+        MIN, MAX, SUM, AVG, COUNT
+    }
+}
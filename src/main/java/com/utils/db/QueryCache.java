@@ -0,0 +1,336 @@
+package com.utils.db;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Size and TTL bounded cache of query results.
+ * Entries are keyed by normalized query and parameters and are invalidated by the tables they read from
+ */
+public class QueryCache {
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern TOKENS = Pattern.compile(
+            "(?:\"[^\"]*\"|`[^`]*`|\\[[^\\]]*]|[\\w$]+)(?:\\s*\\.\\s*(?:\"[^\"]*\"|`[^`]*`|\\[[^\\]]*]|[\\w$]+))*|\\S");
+    private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList("where", "group", "order", "having", "limit",
+            "offset", "fetch", "union", "intersect", "except", "join", "inner", "left", "right", "full", "outer", "cross",
+            "natural", "on", "using", "window", "for", "select", "from", "lateral", "as"));
+    private static final Pattern WRITE_TABLE = Pattern.compile(
+            "(?i)^\\s*(?:insert\\s+into|update|delete\\s+from|merge\\s+into|replace\\s+into|truncate\\s+table|truncate|drop\\s+table|alter\\s+table)\\s+([\\w.\"`\\[\\]]+)");
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, CachedResult> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation;
+
+    /**
+     * @param maxEntries Max number of cached results
+     * @param ttl Time to live of the cached result. Zero means no expiration
+     */
+    public QueryCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Build the cache key. Whitespace is collapsed outside of literals and quoted names, values are keyed with their types
+     * @param kind Kind of the result, to separate different representations of the same query
+     * @param sqlQuery The query
+     * @param params Values bound to the query
+     * @return Cache key
+     */
+    public static String key(String kind, String sqlQuery, Object... params) {
+        return String.format("%1$s|%2$s|%3$s", kind, normalize(sqlQuery), describe(params));
+    }
+
+    /**
+     * Get cached result
+     * @param key Cache key
+     * @return Cached result or null if it is absent or expired
+     */
+    public synchronized Object get(String key) {
+        CachedResult entry = entries.get(key);
+        if (entry != null && ttlNanos > 0 && System.nanoTime() - entry.created > ttlNanos) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Get generation of the cache, which is changed by every invalidation.
+     * Read it before executing the query and pass to {@link #put(String, String, Object, long)}
+     * @return Current generation
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Put result to the cache. The result is skipped if the cache was invalidated while the query was executed
+     * or the query is not a select, so the tables it depends on are unknown
+     * @param key Cache key
+     * @param sqlQuery The query, used to find tables the result depends on
+     * @param value The result
+     * @param generation Generation of the cache read before the query was executed
+     */
+    public synchronized void put(String key, String sqlQuery, Object value, long generation) {
+        Set<String> tables = readTables(sqlQuery);
+        if (generation == this.generation && tables != null) {
+            entries.put(key, new CachedResult(value, tables));
+        }
+    }
+
+    /**
+     * Invalidate results, which depend on the table written by the query.
+     * If the table can't be found in the query, all the results are invalidated
+     * @param sqlQuery Insert, update or delete query
+     */
+    public void invalidate(String sqlQuery) {
+        Matcher matcher = WRITE_TABLE.matcher(sqlQuery);
+        if (matcher.find()) {
+            invalidateTable(matcher.group(1));
+        } else {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidate results, which depend on the table
+     * @param table The table
+     */
+    public synchronized void invalidateTable(String table) {
+        String name = tableName(table);
+        generation++;
+        Iterator<CachedResult> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().tables.contains(name)) {
+                iterator.remove();
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Invalidate all the results
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Get ratio of hits to all the lookups
+     * @return Hit ratio from 0 to 1
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryCache[size=%1$s, hits=%2$s, misses=%3$s, evictions=%4$s, invalidations=%5$s]",
+                size(), getHits(), getMisses(), getEvictions(), getInvalidations());
+    }
+
+    private static String normalize(String sqlQuery) {
+        StringBuilder builder = new StringBuilder(sqlQuery.length());
+        String query = sqlQuery.trim();
+        char quote = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (quote != 0) {
+                builder.append(c);
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (builder.charAt(builder.length() - 1) != ' ') {
+                    builder.append(' ');
+                }
+            } else {
+                builder.append(c);
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Describe the values with their types and lengths, so 1 and "1" or "a, b" and "a", "b" get different keys
+     */
+    private static String describe(Object[] params) {
+        StringBuilder builder = new StringBuilder();
+        for (Object param : params) {
+            String value = param != null && param.getClass().isArray() ? Arrays.deepToString(new Object[] {param}) : String.valueOf(param);
+            builder.append(param == null ? "null" : param.getClass().getName()).append(':')
+                    .append(value.length()).append(':').append(value).append(';');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Find the tables of FROM lists, including comma-separated ones, of JOINs and of subqueries
+     * @param sqlQuery The query
+     * @return Names of the tables or null if the query is not a select
+     */
+    private static Set<String> readTables(String sqlQuery) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKENS.matcher(LITERALS.matcher(sqlQuery).replaceAll(" "));
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        if (tokens.isEmpty() || !(is(tokens.get(0), "select") || is(tokens.get(0), "with") || is(tokens.get(0), "("))) {
+            return null;
+        }
+        Set<String> tables = new HashSet<>();
+        scan(tokens, 0, tokens.size(), tables);
+        return Collections.unmodifiableSet(tables);
+    }
+
+    private static void scan(List<String> tokens, int from, int to, Set<String> tables) {
+        int i = from;
+        while (i < to) {
+            String token = tokens.get(i);
+            if (token.equals("(")) {
+                int end = closing(tokens, i, to);
+                scan(tokens, i + 1, end, tables);
+                i = end + 1;
+            } else if (is(token, "from")) {
+                i = item(tokens, i + 1, to, tables);
+                while (i < to && tokens.get(i).equals(",")) {
+                    i = item(tokens, i + 1, to, tables);
+                }
+            } else if (is(token, "join")) {
+                i = item(tokens, i + 1, to, tables);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Read one item of the FROM list: a table or a subquery with an optional alias
+     */
+    private static int item(List<String> tokens, int from, int to, Set<String> tables) {
+        int i = from;
+        if (i < to && is(tokens.get(i), "lateral")) {
+            i++;
+        }
+        if (i >= to) {
+            return i;
+        }
+        if (tokens.get(i).equals("(")) {
+            int end = closing(tokens, i, to);
+            scan(tokens, i + 1, end, tables);
+            i = end + 1;
+        } else if (isName(tokens.get(i))) {
+            tables.add(tableName(tokens.get(i)));
+            i++;
+            if (i < to && tokens.get(i).equals("(")) {
+                int end = closing(tokens, i, to);
+                scan(tokens, i + 1, end, tables);
+                i = end + 1;
+            }
+        }
+        if (i < to && is(tokens.get(i), "as")) {
+            i++;
+        }
+        if (i < to && isName(tokens.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int closing(List<String> tokens, int open, int to) {
+        int depth = 0;
+        for (int i = open; i < to; i++) {
+            if (tokens.get(i).equals("(")) {
+                depth++;
+            } else if (tokens.get(i).equals(")") && --depth == 0) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static boolean isName(String token) {
+        char first = token.charAt(0);
+        return (Character.isLetterOrDigit(first) || first == '_' || first == '$' || first == '"' || first == '`' || first == '[')
+                && !CLAUSE_KEYWORDS.contains(token.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean is(String token, String keyword) {
+        return token.equalsIgnoreCase(keyword);
+    }
+
+    private static String tableName(String table) {
+        String name = table.replaceAll("[\"`\\[\\]\\s]", "").toLowerCase(Locale.ROOT);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static final class CachedResult {
+        private final Object value;
+        private final Set<String> tables;
+        private final long created = System.nanoTime();
+
+        private CachedResult(Object value, Set<String> tables) {
+            this.value = value;
+            this.tables = tables;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.utils.db;
+
+import org.apache.log4j.Logger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class for exposing forward-only ResultSet as lazy Stream
+ */
+public final class ResultStreams {
+    private static final Logger LOGGER = Logger.getLogger(ResultStreams.class.getName());
+
+    private ResultStreams() {}
+
+    /**
+     * Execute the query with forward-only, read-only cursor and map rows lazily.
+     * The connection is returned to the pool when the stream is closed or fully consumed
+     * @param pool Pool to lease connection from
+     * @param sqlQuery The query with "?" placeholders
+     * @param fetchSize Number of rows fetched from database at once
+     * @param mapper Mapper of rows
+     * @param params Values bound to the placeholders
+     * @param <T> The type of objects in the stream
+     * @return Stream of mapped rows. Must be closed
+     * @throws SQLException if the query can't be executed
+     */
+    public static <T> Stream<T> stream(ConnectionPool pool, String sqlQuery, int fetchSize, RowMapper<T> mapper, Object... params)
+            throws SQLException {
+        Connection connection = pool.acquire();
+        PreparedStatement statement = null;
+        try {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            statement = connection.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            ResultSet rs = statement.executeQuery();
+            RowSpliterator<T> spliterator = new RowSpliterator<>(connection, statement, rs, mapper);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        } catch (SQLException | RuntimeException ex) {
+            close(connection, statement, null);
+            throw ex;
+        }
+    }
+
+    private static void close(Connection connection, PreparedStatement statement, ResultSet rs) {
+        closeQuietly(rs);
+        closeQuietly(statement);
+        if (connection != null) {
+            try {
+                if (!connection.isClosed()) {
+                    // read-only flag can't be changed in the middle of a transaction
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                    connection.setReadOnly(false);
+                }
+            } catch (SQLException ex) {
+                LOGGER.error(String.format("Can't release resources of the stream%n%1$s", ex.getMessage()));
+            }
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Can't release resources of the stream%n%1$s", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Reads rows one by one and releases resources after the last one
+     * @param <T> The type of mapped rows
+     */
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private int rowNum;
+
+        private RowSpliterator(Connection connection, PreparedStatement statement, ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.connection = connection;
+            this.statement = statement;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed.get()) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs, ++rowNum));
+                return true;
+            } catch (SQLException ex) {
+                close();
+                throw new IllegalStateException(String.format("Can't read row %1$s%n%2$s", rowNum + 1, ex.getMessage()), ex);
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                ResultStreams.close(connection, statement, rs);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.utils.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps the current row of ResultSet to object
+ * @param <T> The type of object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Map the current row. The implementation must not move the cursor
+     * @param rs ResultSet positioned on the row
+     * @param rowNum Number of the row starting from 1
+     * @return Object of type T
+     * @throws SQLException if a column can't be read
+     */
+    T map(ResultSet rs, int rowNum) throws SQLException;
+
+    /**
+     * Mapper of row to map of column label and value in the order of columns
+     * @return Row mapper
+     */
+    static RowMapper<Map<String, Object>> asMap() {
+        return (rs, rowNum) -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                row.put(metaData.getColumnLabel(i), rs.getObject(i));
+            }
+            return row;
+        };
+    }
+
+    /**
+     * Mapper of row to bean. Columns are matched to fields by name ignoring case and underscores
+     * @param tClass The class of bean, must have constructor without parameters
+     * @param <T> The type of bean
+     * @return Row mapper
+     */
+    static <T> RowMapper<T> bean(Class<T> tClass) {
+        return new BeanRowMapper<>(tClass);
+    }
+}
@@ -0,0 +1,51 @@
+package com.utils.db;
+
+import java.util.Locale;
+
+/**
+ * SQL dialects supported by {@link QueryBuilder}. They differ in the way the number of rows is limited
+ */
+public enum SqlDialect {
+    STANDARD {
+        @Override
+        String limit(String select, int rows) {
+            return String.format("%1$s FETCH FIRST %2$s ROWS ONLY", select, rows);
+        }
+    },
+    LIMIT {
+        @Override
+        String limit(String select, int rows) {
+            return String.format("%1$s LIMIT %2$s", select, rows);
+        }
+    },
+    TOP {
+        @Override
+        String limit(String select, int rows) {
+            return select.replaceFirst("(?i)^SELECT ", String.format("SELECT TOP %1$s ", rows));
+        }
+    };
+
+    /**
+     * Limit number of rows returned by the query
+     * @param select The query starting with "SELECT "
+     * @param rows Max number of rows
+     * @return Query with limit
+     */
+    abstract String limit(String select, int rows);
+
+    /**
+     * Detect dialect by JDBC connection URL
+     * @param url JDBC connection URL
+     * @return LIMIT for MySQL, MariaDB, PostgreSQL, H2, SQLite, HSQLDB; TOP for SQL Server and Sybase; STANDARD otherwise
+     */
+    public static SqlDialect fromUrl(String url) {
+        String lower = url == null ? "" : url.toLowerCase(Locale.ROOT);
+        if (lower.matches("jdbc:(mysql|mariadb|postgresql|h2|sqlite|hsqldb)[:].*")) {
+            return LIMIT;
+        }
+        if (lower.matches("jdbc:(sqlserver|jtds|sybase)[:].*")) {
+            return TOP;
+        }
+        return STANDARD;
+    }
+}
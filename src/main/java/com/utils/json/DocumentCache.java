@@ -0,0 +1,177 @@
+package com.utils.json;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded cache of parsed JSON documents.
+ * Entries are keyed by the file path and are dropped when the modification time or size of the file changes.
+ * The size of an entry is the estimated heap size of its tree, not the size of the file
+ */
+public class DocumentCache {
+    private final long maxBytes;
+    private final Map<Path, CachedDocument> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long size;
+
+    /**
+     * @param maxBytes Max total estimated heap size of the cached trees. Documents larger than the limit are not cached
+     */
+    public DocumentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get cached document
+     * @param file Absolute path to the file
+     * @param lastModified Modification time of the file in milliseconds
+     * @param length Size of the file in bytes
+     * @return Parsed document or null if it is absent or the file was changed. Must not be modified
+     */
+    public synchronized JsonElement get(Path file, long lastModified, long length) {
+        JsonElement document = lookup(file, lastModified, length);
+        if (document == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return document;
+    }
+
+    /**
+     * Get cached document without counting the lookup as a hit or miss, for the readers which don't put the document on a miss
+     * @param file Absolute path to the file
+     * @param lastModified Modification time of the file in milliseconds
+     * @param length Size of the file in bytes
+     * @return Parsed document or null if it is absent or the file was changed. Must not be modified
+     */
+    public synchronized JsonElement peek(Path file, long lastModified, long length) {
+        return lookup(file, lastModified, length);
+    }
+
+    /**
+     * Put document to the cache, evicting the least recently used ones if the size limit is exceeded
+     * @param file Absolute path to the file
+     * @param lastModified Modification time of the file in milliseconds
+     * @param length Size of the file in bytes
+     * @param document Parsed document
+     */
+    public void put(Path file, long lastModified, long length, JsonElement document) {
+        if (length > maxBytes) {
+            return;
+        }
+        long weight = estimateBytes(document);
+        if (weight > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            CachedDocument previous = entries.put(file, new CachedDocument(document, lastModified, length, weight));
+            size += weight - (previous == null ? 0 : previous.weight);
+            Iterator<CachedDocument> iterator = entries.values().iterator();
+            while (size > maxBytes && iterator.hasNext()) {
+                size -= iterator.next().weight;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Estimate heap size of the tree: Gson objects, their maps, lists and strings on a 64-bit JVM with compressed references
+     * @param document The tree
+     * @return Approximate size in bytes
+     */
+    static long estimateBytes(JsonElement document) {
+        long bytes = 0;
+        Deque<JsonElement> pending = new ArrayDeque<>();
+        pending.push(document);
+        while (!pending.isEmpty()) {
+            JsonElement element = pending.pop();
+            if (element.isJsonObject()) {
+                bytes += 72;
+                for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                    bytes += 40 + 40 + entry.getKey().length();
+                    pending.push(entry.getValue());
+                }
+            } else if (element.isJsonArray()) {
+                bytes += 56 + 4L * element.getAsJsonArray().size();
+                element.getAsJsonArray().forEach(pending::push);
+            } else if (element.isJsonPrimitive()) {
+                JsonPrimitive primitive = element.getAsJsonPrimitive();
+                bytes += primitive.isBoolean() ? 16 : 72 + primitive.getAsString().length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Remove all the documents
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Get estimated heap size of the cached trees
+     * @return Size in bytes
+     */
+    public synchronized long getSizeBytes() {
+        return size;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DocumentCache[size=%1$s, bytes=%2$s, hits=%3$s, misses=%4$s, evictions=%5$s]",
+                size(), getSizeBytes(), getHits(), getMisses(), getEvictions());
+    }
+
+    private JsonElement lookup(Path file, long lastModified, long length) {
+        CachedDocument entry = entries.get(file);
+        if (entry != null && (entry.lastModified != lastModified || entry.length != length)) {
+            entries.remove(file);
+            size -= entry.weight;
+            entry = null;
+        }
+        return entry == null ? null : entry.document;
+    }
+
+    private static final class CachedDocument {
+        private final JsonElement document;
+        private final long lastModified;
+        private final long length;
+        private final long weight;
+
+        private CachedDocument(JsonElement document, long lastModified, long length, long weight) {
+            this.document = document;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.weight = weight;
+        }
+    }
+}
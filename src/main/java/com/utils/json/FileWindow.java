@@ -0,0 +1,87 @@
+package com.utils.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Window of bytes of the file, either memory-mapped or read to a heap buffer with positional reads.
+ * Positional reads and mappings do not change the position of the channel, so windows of the same channel
+ * can be used by several threads
+ */
+final class FileWindow {
+    private final FileChannel channel;
+    private final boolean mapped;
+    private ByteBuffer buffer;
+    private long start;
+
+    FileWindow(FileChannel channel, boolean mapped) {
+        this.channel = channel;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Move the window to the range of the file
+     * @param position Position of the first byte
+     * @param size Number of bytes, not beyond the end of the file
+     * @throws IOException if the file can't be read
+     */
+    void load(long position, int size) throws IOException {
+        start = position;
+        if (mapped) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            return;
+        }
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.clear().limit(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    boolean contains(long position) {
+        return buffer != null && position >= start && position < end();
+    }
+
+    long start() {
+        return start;
+    }
+
+    long end() {
+        return buffer == null ? start : start + buffer.limit();
+    }
+
+    byte get(long position) {
+        return buffer.get((int) (position - start));
+    }
+
+    /**
+     * Copy bytes of the window
+     * @param from Position of the first byte in the file
+     * @param to Position after the last byte in the file
+     * @return Copied bytes
+     */
+    byte[] copy(long from, long to) {
+        byte[] bytes = new byte[(int) (to - from)];
+        copy(from, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Copy bytes of the window to the array
+     * @param from Position of the first byte in the file
+     * @param target The array to copy to
+     * @param offset Offset in the array
+     * @param length Number of bytes
+     */
+    void copy(long from, byte[] target, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) (from - start));
+        view.get(target, offset, length);
+    }
+}
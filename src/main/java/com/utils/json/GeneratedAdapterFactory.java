@@ -0,0 +1,38 @@
+package com.utils.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Provides TypeAdapters generated for {@link JsonModel} classes. Returns null for other classes,
+ * so Gson falls back to its reflective adapter
+ */
+public final class GeneratedAdapterFactory implements TypeAdapterFactory {
+    /**
+     * Suffix of the generated adapter class name
+     */
+    public static final String SUFFIX = "_GsonAdapter";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (!raw.isAnnotationPresent(JsonModel.class) || raw.getTypeParameters().length > 0) {
+            return null;
+        }
+        Class<?> adapter;
+        try {
+            adapter = Class.forName(raw.getName() + SUFFIX, true, raw.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+        try {
+            return (TypeAdapter<T>) adapter.getConstructor(Gson.class).newInstance(gson);
+        } catch (ReflectiveOperationException ex) {
+            throw new JsonIOException(String.format("Can't create generated adapter %1$s", adapter.getName()), ex);
+        }
+    }
+}
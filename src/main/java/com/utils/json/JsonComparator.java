@@ -0,0 +1,586 @@
+package com.utils.json;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural comparison of JSON documents. Both documents are read incrementally:
+ * objects with the same key order and ordered arrays are compared without building trees,
+ * only the values of keys met out of order are buffered until the key is found in the other document.
+ * Unordered arrays are matched by structural hashes of their elements, so only the hashes are kept in memory.
+ * Paths are written as "$.items[2].name", "*" matches any key or index and "**" matches any number of segments
+ */
+public class JsonComparator {
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final String[] TOKEN_NAMES = new String[JsonToken.values().length];
+    static {
+        Arrays.fill(TOKEN_NAMES, "null");
+        TOKEN_NAMES[JsonToken.BEGIN_OBJECT.ordinal()] = "object";
+        TOKEN_NAMES[JsonToken.BEGIN_ARRAY.ordinal()] = "array";
+        TOKEN_NAMES[JsonToken.STRING.ordinal()] = "string";
+        TOKEN_NAMES[JsonToken.NUMBER.ordinal()] = "number";
+        TOKEN_NAMES[JsonToken.BOOLEAN.ordinal()] = "boolean";
+    }
+
+    private final List<List<Object>> ignoredPaths = new ArrayList<>();
+    private final List<List<Object>> unorderedPaths = new ArrayList<>();
+    private double tolerance;
+    private int maxDifferences = 100;
+
+    /**
+     * Skip the values by the paths, e.g. "$.meta.timestamp" or "$.items[*].id"
+     * @param paths The paths to skip
+     * @return This comparator
+     */
+    public JsonComparator ignore(String... paths) {
+        for (String path : paths) {
+            ignoredPaths.add(JsonStreams.parsePath(path));
+        }
+        return this;
+    }
+
+    /**
+     * Compare the arrays by the paths regardless of the order of elements.
+     * Elements are matched exactly, the numeric tolerance is not applied to them.
+     * Missing elements are reported by their type: "object", "array", "string", "number", "boolean", "null"
+     * @param paths The paths of arrays
+     * @return This comparator
+     */
+    public JsonComparator unordered(String... paths) {
+        for (String path : paths) {
+            unorderedPaths.add(JsonStreams.parsePath(path));
+        }
+        return this;
+    }
+
+    /**
+     * Treat numbers as equal if they differ by no more than the tolerance
+     * @param tolerance Absolute tolerance, 0 to compare numbers exactly (1.0 is equal to 1)
+     * @return This comparator
+     */
+    public JsonComparator tolerance(double tolerance) {
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Stop the comparison after the number of differences is found
+     * @param maxDifferences Max number of reported differences
+     * @return This comparator
+     */
+    public JsonComparator maxDifferences(int maxDifferences) {
+        this.maxDifferences = maxDifferences;
+        return this;
+    }
+
+    /**
+     * Compare the documents
+     * @param expected Source of the expected document
+     * @param actual Source of the actual document
+     * @return First differences in the order of the expected document, empty if the documents are equal
+     * @throws IOException if a document can't be read
+     * @throws JsonSyntaxException if a document is not a valid JSON
+     */
+    public List<JsonDifference> compare(Reader expected, Reader actual) throws IOException {
+        JsonReader left = new JsonReader(expected);
+        JsonReader right = new JsonReader(actual);
+        left.setLenient(true);
+        right.setLenient(true);
+        try {
+            return compare(left, right);
+        } catch (MalformedJsonException | EOFException ex) {
+            throw new JsonSyntaxException(ex);
+        }
+    }
+
+    /**
+     * Compare the documents
+     * @param expected The expected JSON
+     * @param actual The actual JSON
+     * @return First differences in the order of the expected document, empty if the documents are equal
+     * @throws JsonSyntaxException if a document is not a valid JSON
+     */
+    public List<JsonDifference> compare(String expected, String actual) {
+        try {
+            return compare(new StringReader(expected), new StringReader(actual));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Compare the trees
+     * @param expected The expected tree
+     * @param actual The actual tree
+     * @return First differences in the order of the expected tree, empty if the trees are equal
+     */
+    public List<JsonDifference> compare(JsonElement expected, JsonElement actual) {
+        try {
+            return compare(reader(expected), reader(actual));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<JsonDifference> compare(JsonReader left, JsonReader right) throws IOException {
+        Walk walk = new Walk();
+        try {
+            walk.value(left, right);
+        } catch (LimitReached ex) {
+            // the first maxDifferences differences are collected
+        }
+        return walk.differences;
+    }
+
+    /**
+     * Read the tree as a document. Used for the trees and the buffered values, which are small compared to the documents
+     */
+    private static JsonReader reader(JsonElement element) {
+        return new JsonReader(new StringReader(element.toString()));
+    }
+
+    private static boolean matches(List<Object> pattern, int patternIndex, List<Object> path, int pathIndex) {
+        if (patternIndex == pattern.size()) {
+            return pathIndex == path.size();
+        }
+        Object segment = pattern.get(patternIndex);
+        if ("**".equals(segment)) {
+            for (int i = pathIndex; i <= path.size(); i++) {
+                if (matches(pattern, patternIndex + 1, path, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (pathIndex == path.size()) {
+            return false;
+        }
+        return ("*".equals(segment) || segment.equals(path.get(pathIndex))) && matches(pattern, patternIndex + 1, path, pathIndex + 1);
+    }
+
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * Canonical form of the number: unscaled value without trailing zeros and the exponent, e.g. "1e1" for 10, 10.0 and 1E+1.
+     * Unlike the plain form, its length doesn't depend on the exponent
+     */
+    private static String normalizeNumber(String number) {
+        if (isPlainInteger(number)) {
+            int end = number.length();
+            while (number.charAt(end - 1) == '0') {
+                end--;
+            }
+            return number.substring(0, end) + "e" + (number.length() - end);
+        }
+        try {
+            BigDecimal value = new BigDecimal(number).stripTrailingZeros();
+            return value.signum() == 0 ? "0" : value.unscaledValue() + "e" + -value.scale();
+        } catch (NumberFormatException ex) {
+            return number;
+        }
+    }
+
+    private static boolean isPlainInteger(String number) {
+        int start = number.startsWith("-") ? 1 : 0;
+        if (number.length() == start || number.charAt(start) == '0' && number.length() > start + 1) {
+            return false;
+        }
+        for (int i = start; i < number.length(); i++) {
+            if (number.charAt(i) < '0' || number.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return !number.equals("-0") && !number.equals("0");
+    }
+
+    /**
+     * State of one comparison: the current path and found differences
+     */
+    private final class Walk {
+        private final List<JsonDifference> differences = new ArrayList<>();
+        private final List<Object> path = new ArrayList<>();
+
+        private void value(JsonReader left, JsonReader right) throws IOException {
+            if (isIgnored()) {
+                left.skipValue();
+                right.skipValue();
+                return;
+            }
+            JsonToken token = left.peek();
+            if (token != right.peek()) {
+                add(JsonDifference.Kind.TYPE, describe(left), describe(right));
+                return;
+            }
+            switch (token) {
+                case BEGIN_OBJECT:
+                    object(left, right);
+                    break;
+                case BEGIN_ARRAY:
+                    if (isUnordered()) {
+                        unorderedArray(left, right);
+                    } else {
+                        array(left, right);
+                    }
+                    break;
+                case NUMBER:
+                    String expectedNumber = left.nextString();
+                    String actualNumber = right.nextString();
+                    if (!numbersEqual(expectedNumber, actualNumber)) {
+                        add(JsonDifference.Kind.VALUE, expectedNumber, actualNumber);
+                    }
+                    break;
+                case STRING:
+                    String expectedString = left.nextString();
+                    String actualString = right.nextString();
+                    if (!expectedString.equals(actualString)) {
+                        add(JsonDifference.Kind.VALUE, quote(expectedString), quote(actualString));
+                    }
+                    break;
+                case BOOLEAN:
+                    boolean expectedBoolean = left.nextBoolean();
+                    boolean actualBoolean = right.nextBoolean();
+                    if (expectedBoolean != actualBoolean) {
+                        add(JsonDifference.Kind.VALUE, String.valueOf(expectedBoolean), String.valueOf(actualBoolean));
+                    }
+                    break;
+                default:
+                    left.skipValue();
+                    right.skipValue();
+            }
+        }
+
+        private void object(JsonReader left, JsonReader right) throws IOException {
+            left.beginObject();
+            right.beginObject();
+            Map<String, JsonElement> pendingLeft = new LinkedHashMap<>();
+            Map<String, JsonElement> pendingRight = new LinkedHashMap<>();
+            while (left.hasNext() || right.hasNext()) {
+                String leftName = left.hasNext() ? left.nextName() : null;
+                String rightName = right.hasNext() ? right.nextName() : null;
+                if (leftName != null && leftName.equals(rightName)) {
+                    path.add(leftName);
+                    value(left, right);
+                    path.remove(path.size() - 1);
+                    continue;
+                }
+                if (leftName != null) {
+                    JsonElement buffered = pendingRight.remove(leftName);
+                    path.add(leftName);
+                    if (buffered != null) {
+                        value(left, reader(buffered));
+                    } else if (isIgnored()) {
+                        left.skipValue();
+                    } else {
+                        pendingLeft.put(leftName, JsonParser.parseReader(left));
+                    }
+                    path.remove(path.size() - 1);
+                }
+                if (rightName != null) {
+                    JsonElement buffered = pendingLeft.remove(rightName);
+                    path.add(rightName);
+                    if (buffered != null) {
+                        value(reader(buffered), right);
+                    } else if (isIgnored()) {
+                        right.skipValue();
+                    } else {
+                        pendingRight.put(rightName, JsonParser.parseReader(right));
+                    }
+                    path.remove(path.size() - 1);
+                }
+            }
+            left.endObject();
+            right.endObject();
+            for (Map.Entry<String, JsonElement> entry : pendingLeft.entrySet()) {
+                path.add(entry.getKey());
+                add(JsonDifference.Kind.MISSING, describe(reader(entry.getValue())), null);
+                path.remove(path.size() - 1);
+            }
+            for (Map.Entry<String, JsonElement> entry : pendingRight.entrySet()) {
+                path.add(entry.getKey());
+                add(JsonDifference.Kind.UNEXPECTED, null, describe(reader(entry.getValue())));
+                path.remove(path.size() - 1);
+            }
+        }
+
+        private void array(JsonReader left, JsonReader right) throws IOException {
+            left.beginArray();
+            right.beginArray();
+            int index = 0;
+            for (; left.hasNext() && right.hasNext(); index++) {
+                path.add(index);
+                value(left, right);
+                path.remove(path.size() - 1);
+            }
+            for (; left.hasNext(); index++) {
+                path.add(index);
+                if (isIgnored()) {
+                    left.skipValue();
+                } else {
+                    add(JsonDifference.Kind.MISSING, describe(left), null);
+                }
+                path.remove(path.size() - 1);
+            }
+            for (; right.hasNext(); index++) {
+                path.add(index);
+                if (isIgnored()) {
+                    right.skipValue();
+                } else {
+                    add(JsonDifference.Kind.UNEXPECTED, null, describe(right));
+                }
+                path.remove(path.size() - 1);
+            }
+            left.endArray();
+            right.endArray();
+        }
+
+        /**
+         * Only the hashes of expected elements are kept: sorted to find a match by binary search,
+         * and bits of matched positions. Missing elements are reported by their type
+         */
+        private void unorderedArray(JsonReader left, JsonReader right) throws IOException {
+            long[] hashes = new long[16];
+            byte[] tokens = new byte[16];
+            int size = 0;
+            left.beginArray();
+            for (; left.hasNext(); size++) {
+                if (size == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, size * 2);
+                    tokens = Arrays.copyOf(tokens, size * 2);
+                }
+                path.add(size);
+                tokens[size] = (byte) left.peek().ordinal();
+                hashes[size] = hashValue(left, new Preview());
+                path.remove(path.size() - 1);
+            }
+            left.endArray();
+            long[] sorted = Arrays.copyOf(hashes, size);
+            Arrays.sort(sorted);
+            BitSet matched = new BitSet(size);
+            right.beginArray();
+            for (int index = 0; right.hasNext(); index++) {
+                path.add(index);
+                Preview preview = new Preview();
+                int position = find(sorted, matched, hashValue(right, preview), false);
+                if (position >= 0) {
+                    matched.set(position);
+                } else {
+                    add(JsonDifference.Kind.UNEXPECTED, null, preview.text);
+                }
+                path.remove(path.size() - 1);
+            }
+            right.endArray();
+            for (int index = 0; index < size; index++) {
+                int position = find(sorted, matched, hashes[index], true);
+                if (position >= 0) {
+                    matched.clear(position);
+                } else {
+                    path.add(index);
+                    add(JsonDifference.Kind.MISSING, TOKEN_NAMES[tokens[index]], null);
+                    path.remove(path.size() - 1);
+                }
+            }
+        }
+
+        /**
+         * Find the first position of the hash with the given state of the matched bit
+         */
+        private int find(long[] sorted, BitSet matched, long hash, boolean state) {
+            int position = Arrays.binarySearch(sorted, hash);
+            if (position < 0) {
+                return -1;
+            }
+            while (position > 0 && sorted[position - 1] == hash) {
+                position--;
+            }
+            for (; position < sorted.length && sorted[position] == hash; position++) {
+                if (matched.get(position) == state) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Structural hash of the value: keys of objects are unordered, ignored paths are skipped
+         */
+        private long hashValue(JsonReader reader, Preview preview) throws IOException {
+            JsonToken token = reader.peek();
+            switch (token) {
+                case BEGIN_OBJECT:
+                    preview.set("object");
+                    reader.beginObject();
+                    long entries = 0;
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        path.add(name);
+                        if (isIgnored()) {
+                            reader.skipValue();
+                        } else {
+                            entries += mix(hash(name) * 31 + hashValue(reader, preview));
+                        }
+                        path.remove(path.size() - 1);
+                    }
+                    reader.endObject();
+                    return mix(entries ^ 0x0b);
+                case BEGIN_ARRAY:
+                    preview.set("array");
+                    boolean unordered = isUnordered();
+                    reader.beginArray();
+                    long elements = 0x0a;
+                    for (int index = 0; reader.hasNext(); index++) {
+                        path.add(index);
+                        long element = isIgnored() ? skip(reader) : hashValue(reader, preview);
+                        elements = unordered ? elements + mix(element) : elements * 31 + element;
+                        path.remove(path.size() - 1);
+                    }
+                    reader.endArray();
+                    return mix(elements);
+                case NUMBER:
+                    String number = reader.nextString();
+                    preview.set(number);
+                    return mix(hash(normalizeNumber(number)) ^ 0x01);
+                case STRING:
+                    String string = reader.nextString();
+                    preview.set(quote(string));
+                    return mix(hash(string) ^ 0x02);
+                case BOOLEAN:
+                    boolean bool = reader.nextBoolean();
+                    preview.set(String.valueOf(bool));
+                    return bool ? 0x03 : 0x04;
+                default:
+                    reader.skipValue();
+                    preview.set("null");
+                    return 0x05;
+            }
+        }
+
+        private long skip(JsonReader reader) throws IOException {
+            reader.skipValue();
+            return 0;
+        }
+
+        private boolean numbersEqual(String expected, String actual) {
+            if (expected.equals(actual)) {
+                return true;
+            }
+            try {
+                if (tolerance > 0) {
+                    return Math.abs(Double.parseDouble(expected) - Double.parseDouble(actual)) <= tolerance;
+                }
+                return new BigDecimal(expected).compareTo(new BigDecimal(actual)) == 0;
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        private String describe(JsonReader reader) throws IOException {
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    reader.skipValue();
+                    return "object";
+                case BEGIN_ARRAY:
+                    reader.skipValue();
+                    return "array";
+                case STRING:
+                    return quote(reader.nextString());
+                case NUMBER:
+                    return reader.nextString();
+                case BOOLEAN:
+                    return String.valueOf(reader.nextBoolean());
+                default:
+                    reader.skipValue();
+                    return "null";
+            }
+        }
+
+        private boolean isIgnored() {
+            for (List<Object> pattern : ignoredPaths) {
+                if (matches(pattern, 0, path, 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isUnordered() {
+            for (List<Object> pattern : unorderedPaths) {
+                if (matches(pattern, 0, path, 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(JsonDifference.Kind kind, String expected, String actual) {
+            StringBuilder builder = new StringBuilder("$");
+            for (Object segment : path) {
+                builder.append(segment instanceof Integer ? "[" + segment + "]" : "." + segment);
+            }
+            differences.add(new JsonDifference(builder.toString(), kind, expected, actual));
+            if (differences.size() >= maxDifferences) {
+                throw new LimitReached();
+            }
+        }
+
+        private String quote(String value) {
+            String text = value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+            return "\"" + text + "\"";
+        }
+    }
+
+    /**
+     * Short description of the array element: its value if it is scalar, otherwise its type
+     */
+    private static final class Preview {
+        private String text;
+
+        private void set(String value) {
+            if (text == null) {
+                text = value;
+            }
+        }
+    }
+
+    /**
+     * Thrown to stop the comparison when enough differences are found
+     */
+    private static final class LimitReached extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private LimitReached() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.utils.json;
+
+/**
+ * One difference between the expected and actual JSON documents
+ */
+public final class JsonDifference {
+    /**
+     * Kind of the difference
+     */
+    public enum Kind {
+        /** Values of the same type are not equal */
+        VALUE,
+        /** Values have different JSON types */
+        TYPE,
+        /** The value is expected, but absent in the actual document */
+        MISSING,
+        /** The value is present in the actual document, but not expected */
+        UNEXPECTED
+    }
+
+    private final String path;
+    private final Kind kind;
+    private final String expected;
+    private final String actual;
+
+    JsonDifference(String path, Kind kind, String expected, String actual) {
+        this.path = path;
+        this.kind = kind;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Get the path of the value, e.g. "$.items[2].name"
+     * @return JSON path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the expected value: scalar value or "object", "array"
+     * @return Expected value or null if it is absent
+     */
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * Get the actual value: scalar value or "object", "array"
+     * @return Actual value or null if it is absent
+     */
+    public String getActual() {
+        return actual;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%1$s: %2$s, expected: %3$s, actual: %4$s", path, kind, expected, actual);
+    }
+}
@@ -0,0 +1,18 @@
+package com.utils.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks model class to get a reflection-free Gson TypeAdapter generated at compile time.
+ * The class must be non-generic, have a no-argument constructor and fields which are not private or have getter and setter
+ * accessible from its package. Otherwise the class is (de)serialized by reflection, as any other class
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface JsonModel {
+}
@@ -0,0 +1,270 @@
+package com.utils.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class for reading JSON incrementally: seeking to a path without building the tree
+ * and reading arrays element by element with bounded memory
+ */
+public final class JsonStreams {
+    private static final Pattern SEGMENT = Pattern.compile("\\G(?:(?:^|\\.)([^.\\[\\]]+)|\\[(\\d+|\\*)])");
+
+    private JsonStreams() {}
+
+    /**
+     * Move the reader to the value by the path, skipping all the unrelated values
+     * @param reader Reader positioned before a value
+     * @param path Keys and indexes separated by dots, e.g. "data.items[2].name". "$" or empty String for the root
+     * @return true - if the reader is positioned before the value, false - if there is no such path
+     * @throws IOException if JSON can't be read
+     */
+    public static boolean seek(JsonReader reader, String path) throws IOException {
+        return seek(reader, parsePath(path));
+    }
+
+    /**
+     * Move the reader to the value by the path, skipping all the unrelated values
+     * @param reader Reader positioned before a value
+     * @param segments Keys (String) and indexes (Integer), see {@link #parsePath(String)}
+     * @return true - if the reader is positioned before the value, false - if there is no such path
+     * @throws IOException if JSON can't be read
+     */
+    public static boolean seek(JsonReader reader, List<Object> segments) throws IOException {
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    return false;
+                }
+                reader.beginObject();
+                boolean found = false;
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals(segment)) {
+                        found = true;
+                        break;
+                    }
+                    reader.skipValue();
+                }
+                if (!found) {
+                    return false;
+                }
+            } else {
+                if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                    return false;
+                }
+                reader.beginArray();
+                for (int i = 0; i < (Integer) segment; i++) {
+                    if (!reader.hasNext()) {
+                        return false;
+                    }
+                    reader.skipValue();
+                }
+                if (!reader.hasNext()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the value of the tree by the path
+     * @param root The root of the tree
+     * @param segments Keys (String) and indexes (Integer), see {@link #parsePath(String)}
+     * @return The value or null if there is no such path
+     */
+    public static JsonElement select(JsonElement root, List<Object> segments) {
+        JsonElement current = root;
+        for (Object segment : segments) {
+            if (segment instanceof String && current != null && current.isJsonObject()) {
+                current = current.getAsJsonObject().get((String) segment);
+            } else if (segment instanceof Integer && current != null && current.isJsonArray()
+                    && (Integer) segment < current.getAsJsonArray().size()) {
+                current = current.getAsJsonArray().get((Integer) segment);
+            } else {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Read JSON array element by element. Only the current element is held in memory.
+     * The reader is closed when the stream is closed or fully consumed
+     * @param reader Source of JSON
+     * @param gson Gson used to deserialize elements
+     * @param type The type of elements
+     * @param path Path to the array, see {@link #seek(JsonReader, String)}
+     * @param <T> The type of elements
+     * @return Stream of elements, empty if there is no array by the path. Must be closed
+     */
+    public static <T> Stream<T> streamArray(Reader reader, Gson gson, Type type, String path) {
+        JsonReader jsonReader = new JsonReader(reader);
+        ArraySpliterator<T> spliterator = new ArraySpliterator<>(jsonReader, gson, type, path);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Read newline-delimited JSON file value by value. Blank lines are skipped
+     * @param file Path to the file
+     * @param charset Charset of the file. Lines are split at '\n' bytes, so it must be ASCII-compatible, e.g. UTF-8 or windows-1251
+     * @param gson Gson used to deserialize values
+     * @param type The type of values
+     * @param mapped true - to read the file through memory-mapped windows, false - through a heap buffer
+     * @param parallel true - to split the file at line boundaries and decode the parts in parallel
+     * @param <T> The type of values
+     * @return Stream of values. Must be closed
+     * @throws IOException if the file can't be opened
+     * @throws IllegalArgumentException if the charset is not ASCII-compatible
+     */
+    public static <T> Stream<T> streamLines(Path file, Charset charset, Gson gson, Type type, boolean mapped, boolean parallel) throws IOException {
+        if (!Arrays.equals("\n{}".getBytes(charset), new byte[] {'\n', '{', '}'})) {
+            throw new IllegalArgumentException(String.format("Lines can't be split in %1$s", charset));
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        LineSpliterator<T> spliterator = new LineSpliterator<>(channel, mapped, charset, gson, type, 0, channel.size());
+        return StreamSupport.stream(spliterator, parallel).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Open buffered reader of the file
+     * @param file Path to the file
+     * @param charset Charset of the file
+     * @param mapped true - to read the file through memory-mapped windows, false - through a channel with a heap buffer
+     * @return Reader of the file
+     * @throws IOException if the file can't be opened
+     */
+    public static Reader openReader(Path file, Charset charset, boolean mapped) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        Reader reader = mapped
+                ? new InputStreamReader(new WindowInputStream(channel), charset.newDecoder())
+                : Channels.newReader(channel, charset.newDecoder(), 1 << 16);
+        return new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * Split the path to keys (String) and indexes (Integer), "[*]" gives the "*" key
+     * @param path The path like "$.items[2].name" or "$[*].id", the leading "$" is optional
+     * @return Segments of the path
+     * @throws IllegalArgumentException if the path can't be parsed
+     */
+    public static List<Object> parsePath(String path) {
+        List<Object> segments = new ArrayList<>();
+        if (path == null || path.isBlank()) {
+            return segments;
+        }
+        String trimmed = path.trim();
+        if (trimmed.startsWith("$") && (trimmed.length() == 1 || trimmed.charAt(1) == '.' || trimmed.charAt(1) == '[')) {
+            trimmed = trimmed.substring(1);
+            if (trimmed.startsWith(".")) {
+                trimmed = trimmed.substring(1);
+            }
+        }
+        Matcher matcher = SEGMENT.matcher(trimmed);
+        int end = 0;
+        while (end < trimmed.length() && matcher.find()) {
+            if (matcher.group(1) != null) {
+                segments.add(matcher.group(1));
+            } else {
+                segments.add("*".equals(matcher.group(2)) ? "*" : Integer.valueOf(matcher.group(2)));
+            }
+            end = matcher.end();
+        }
+        if (end != trimmed.length()) {
+            throw new IllegalArgumentException(String.format("Can't parse JSON path '%1$s' at '%2$s'", path, trimmed.substring(end)));
+        }
+        return segments;
+    }
+
+    /**
+     * Reads array elements one by one
+     * @param <T> The type of elements
+     */
+    private static final class ArraySpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final JsonReader reader;
+        private final Gson gson;
+        private final Type type;
+        private final String path;
+        private boolean started;
+        private boolean closed;
+
+        private ArraySpliterator(JsonReader reader, Gson gson, Type type, String path) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.reader = reader;
+            this.gson = gson;
+            this.type = type;
+            this.path = path;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!started) {
+                    started = true;
+                    if (!seek(reader, path) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        close();
+                        return false;
+                    }
+                    reader.beginArray();
+                }
+                if (!reader.hasNext()) {
+                    close();
+                    return false;
+                }
+                T element = gson.fromJson(reader, type);
+                action.accept(element);
+                return true;
+            } catch (IOException ex) {
+                close();
+                throw new UncheckedIOException(ex);
+            } catch (JsonParseException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+    }
+}
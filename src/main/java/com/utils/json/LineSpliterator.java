@@ -0,0 +1,128 @@
+package com.utils.json;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads newline-delimited JSON from the byte range of the file, one value per line.
+ * The range is split at line boundaries, so the lines of a large file are decoded in parallel
+ * @param <T> The type of values
+ */
+final class LineSpliterator<T> implements Spliterator<T> {
+    private static final int MIN_SPLIT = 1 << 20;
+    private static final int WINDOW = 1 << 23;
+    private final FileChannel channel;
+    private final boolean mapped;
+    private final Charset charset;
+    private final Gson gson;
+    private final Type type;
+    private final FileWindow window;
+    private long position;
+    private final long end;
+
+    LineSpliterator(FileChannel channel, boolean mapped, Charset charset, Gson gson, Type type, long position, long end) {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.charset = charset;
+        this.gson = gson;
+        this.type = type;
+        this.window = new FileWindow(channel, mapped);
+        this.position = position;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+            while (position < end) {
+                int size = WINDOW;
+                if (!window.contains(position)) {
+                    window.load(position, (int) Math.min(size, end - position));
+                }
+                long newline = -1;
+                for (long i = position; i < window.end(); i++) {
+                    if (window.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline < 0 && window.end() < end) {
+                    if (window.start() == position) {
+                        size = (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) WINDOW, 2L * (window.end() - window.start())));
+                    }
+                    window.load(position, (int) Math.min(size, end - position));
+                    continue;
+                }
+                long lineEnd = newline < 0 ? window.end() : newline;
+                byte[] line = window.copy(position, lineEnd > position && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd);
+                position = newline < 0 ? window.end() : newline + 1;
+                String text = new String(line, charset);
+                if (!text.isBlank()) {
+                    T value = gson.fromJson(text, type);
+                    action.accept(value);
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (end - position < 2L * MIN_SPLIT) {
+            return null;
+        }
+        try {
+            long split = lineStartAfter(position + (end - position) / 2);
+            if (split <= position || split >= end) {
+                return null;
+            }
+            LineSpliterator<T> prefix = new LineSpliterator<>(channel, mapped, charset, gson, type, position, split);
+            position = split;
+            return prefix;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    /**
+     * Find the start of the first line after the position
+     */
+    private long lineStartAfter(long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long offset = from;
+        while (offset < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - offset));
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return end;
+    }
+}
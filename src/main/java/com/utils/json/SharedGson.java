@@ -0,0 +1,24 @@
+package com.utils.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Gson shared by JsonManager and ApiManager. It has the default settings of Gson
+ * and uses adapters generated for {@link JsonModel} classes
+ */
+public final class SharedGson {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedAdapterFactory())
+            .create();
+
+    private SharedGson() {}
+
+    /**
+     * Get the shared Gson
+     * @return Gson instance
+     */
+    public static Gson get() {
+        return GSON;
+    }
+}
@@ -0,0 +1,59 @@
+package com.utils.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential stream of the file read through memory-mapped windows, so files larger than 2 GB can be read
+ */
+final class WindowInputStream extends InputStream {
+    private static final int WINDOW = 1 << 26;
+    private final FileChannel channel;
+    private final FileWindow window;
+    private final long size;
+    private long position;
+
+    WindowInputStream(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.window = new FileWindow(channel, true);
+        this.size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindow()) {
+            return -1;
+        }
+        return window.get(position++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int count = (int) Math.min(length, window.end() - position);
+        window.copy(position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean ensureWindow() throws IOException {
+        if (position >= size) {
+            return false;
+        }
+        if (!window.contains(position)) {
+            window.load(position, (int) Math.min(WINDOW, size - position));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,367 @@
+package com.utils.json.processor;
+
+import com.utils.json.GeneratedAdapterFactory;
+import com.utils.json.JsonModel;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates reflection-free Gson TypeAdapters for {@link JsonModel} classes.
+ * The processor is registered as a service, so it runs when this library is on the compile classpath.
+ * The adapters follow the default Gson rules: static and transient fields are skipped, @SerializedName is honored,
+ * fields are (de)serialized by the adapters Gson provides for their types.
+ * Gson writes the value of a field with a non-generic, non-final type by the adapter of its runtime class and honors @JsonAdapter
+ * of a field, so the classes with such fields keep the reflective adapter
+ */
+@SupportedAnnotationTypes("com.utils.json.JsonModel")
+public class JsonModelProcessor extends AbstractProcessor {
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(JsonModel.class)) {
+            String reason = element.getKind() == ElementKind.CLASS ? generate((TypeElement) element) : "it is not a class";
+            if (reason != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        String.format("Gson adapter is not generated, reflection is used: %1$s", reason), element);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate adapter of the class
+     * @return null if the adapter is generated, otherwise the reason why it is not
+     */
+    private String generate(TypeElement type) {
+        String problem = checkClass(type);
+        if (problem != null) {
+            return problem;
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        List<Property> properties = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Set<String> javaNames = new HashSet<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                TypeMirror fieldType = processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), field);
+                if (containsTypeVariable(fieldType)) {
+                    return String.format("type of field %1$s is not resolved", field.getSimpleName());
+                }
+                String fieldProblem = checkField(field, fieldType);
+                if (fieldProblem != null) {
+                    return fieldProblem;
+                }
+                Property property = new Property(field, fieldType, properties.size());
+                if (!javaNames.add(property.javaName)) {
+                    return String.format("field %1$s is declared more than once", property.javaName);
+                }
+                if (!resolveAccess(property, current, packageName)) {
+                    return String.format("field %1$s is private and has no accessible getter and setter", property.javaName);
+                }
+                for (String name : property.names) {
+                    if (!names.add(name)) {
+                        return String.format("JSON name %1$s is declared more than once", name);
+                    }
+                }
+                properties.add(property);
+            }
+        }
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String adapterName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + GeneratedAdapterFactory.SUFFIX;
+        String source = render(packageName, adapterName, type.getQualifiedName().toString(), properties);
+        String qualifiedAdapterName = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedAdapterName, type).openWriter()) {
+            writer.write(source);
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), type);
+        }
+        return null;
+    }
+
+    private String checkClass(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "the class is abstract";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "the class is generic";
+        }
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            TypeElement enclosing = (TypeElement) current;
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return "the class is private";
+            }
+            if (enclosing.getNestingKind() == NestingKind.MEMBER && !enclosing.getModifiers().contains(Modifier.STATIC)) {
+                return "the class is inner (not static)";
+            }
+            if (enclosing.getNestingKind() == NestingKind.LOCAL || enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+                return "the class is local";
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return null;
+            }
+        }
+        return "the class has no accessible constructor without arguments";
+    }
+
+    /**
+     * Check that the field is written the same way by the declared type adapter as by Gson
+     * @return null if the field can be handled, otherwise the reason why it can't
+     */
+    private String checkField(VariableElement field, TypeMirror fieldType) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(JSON_ADAPTER)) {
+                return String.format("field %1$s has @JsonAdapter", field.getSimpleName());
+            }
+        }
+        if (fieldType.getKind() == TypeKind.DECLARED && ((DeclaredType) fieldType).getTypeArguments().isEmpty()) {
+            Element element = ((DeclaredType) fieldType).asElement();
+            if (element.getKind() != ElementKind.ENUM && !element.getModifiers().contains(Modifier.FINAL)) {
+                return String.format("field %1$s may hold a subclass of %2$s, which Gson writes by its runtime type",
+                        field.getSimpleName(), fieldType);
+            }
+        }
+        return null;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private boolean containsTypeVariable(TypeMirror type) {
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return containsTypeVariable(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() == TypeKind.WILDCARD) {
+            WildcardType wildcard = (WildcardType) type;
+            return (wildcard.getExtendsBound() != null && containsTypeVariable(wildcard.getExtendsBound()))
+                    || (wildcard.getSuperBound() != null && containsTypeVariable(wildcard.getSuperBound()));
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (containsTypeVariable(argument)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Select direct field access or getter and setter, whichever is accessible from the package of the adapter
+     */
+    private boolean resolveAccess(Property property, TypeElement owner, String packageName) {
+        if (isAccessible(property.field, packageName)) {
+            property.getter = "value." + property.javaName;
+            property.setter = "value." + property.javaName + " = %1$s";
+            return true;
+        }
+        String capitalized = Character.toUpperCase(property.javaName.charAt(0)) + property.javaName.substring(1);
+        String getter = null;
+        String setter = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (!isAccessible(method, packageName) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && (name.equals("get" + capitalized)
+                    || (name.equals("is" + capitalized) && property.type.getKind() == TypeKind.BOOLEAN))
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), property.field.asType())) {
+                getter = "value." + name + "()";
+            } else if (method.getParameters().size() == 1 && name.equals("set" + capitalized)
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), property.field.asType())) {
+                setter = "value." + name + "(%1$s)";
+            }
+        }
+        property.getter = getter;
+        property.setter = setter;
+        return getter != null && setter != null;
+    }
+
+    private boolean isAccessible(Element member, String packageName) {
+        if (member.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !member.getModifiers().contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(member).getQualifiedName().contentEquals(packageName);
+    }
+
+    private String render(String packageName, String adapterName, String modelName, List<Property> properties) {
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("import com.google.gson.Gson;\n")
+                .append("import com.google.gson.TypeAdapter;\n")
+                .append("import com.google.gson.reflect.TypeToken;\n")
+                .append("import com.google.gson.stream.JsonReader;\n")
+                .append("import com.google.gson.stream.JsonToken;\n")
+                .append("import com.google.gson.stream.JsonWriter;\n")
+                .append("import java.io.IOException;\n\n")
+                .append("/**\n * Gson adapter of {@link ").append(modelName).append("}, generated by ")
+                .append(getClass().getSimpleName()).append("\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(adapterName).append(" extends TypeAdapter<").append(modelName).append("> {\n");
+        for (Property property : properties) {
+            code.append("    private final TypeAdapter<").append(property.boxedTypeName()).append("> adapter").append(property.index).append(";\n");
+        }
+        code.append("\n    public ").append(adapterName).append("(Gson gson) {\n");
+        for (Property property : properties) {
+            code.append("        adapter").append(property.index).append(" = gson.getAdapter(").append(property.adapterSource()).append(");\n");
+        }
+        code.append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void write(JsonWriter out, ").append(modelName).append(" value) throws IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            out.nullValue();\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        out.beginObject();\n");
+        for (Property property : properties) {
+            code.append("        out.name(\"").append(escape(property.names.get(0))).append("\");\n")
+                    .append("        adapter").append(property.index).append(".write(out, ").append(property.getter).append(");\n");
+        }
+        code.append("        out.endObject();\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(modelName).append(" read(JsonReader in) throws IOException {\n")
+                .append("        if (in.peek() == JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        ").append(modelName).append(" value = new ").append(modelName).append("();\n")
+                .append("        in.beginObject();\n")
+                .append("        while (in.hasNext()) {\n")
+                .append("            switch (in.nextName()) {\n");
+        for (Property property : properties) {
+            for (String name : property.names) {
+                code.append("                case \"").append(escape(name)).append("\":\n");
+            }
+            code.append("                {\n")
+                    .append("                    ").append(property.boxedTypeName()).append(" field = adapter").append(property.index).append(".read(in);\n");
+            if (property.type.getKind().isPrimitive()) {
+                code.append("                    if (field != null) {\n")
+                        .append("                        ").append(String.format(property.setter, "field")).append(";\n")
+                        .append("                    }\n");
+            } else {
+                code.append("                    ").append(String.format(property.setter, "field")).append(";\n");
+            }
+            code.append("                    break;\n")
+                    .append("                }\n");
+        }
+        code.append("                default:\n")
+                .append("                    in.skipValue();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        in.endObject();\n")
+                .append("        return value;\n")
+                .append("    }\n")
+                .append("}\n");
+        return code.toString();
+    }
+
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Serialized field of the model
+     */
+    private final class Property {
+        private final VariableElement field;
+        private final TypeMirror type;
+        private final int index;
+        private final String javaName;
+        private final List<String> names = new ArrayList<>();
+        private String getter;
+        private String setter;
+
+        private Property(VariableElement field, TypeMirror type, int index) {
+            this.field = field;
+            this.type = type;
+            this.index = index;
+            this.javaName = field.getSimpleName().toString();
+            names.add(javaName);
+            for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME)) {
+                    readSerializedName(annotation);
+                }
+            }
+        }
+
+        private void readSerializedName(AnnotationMirror annotation) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+                String key = entry.getKey().getSimpleName().toString();
+                if (key.equals("value")) {
+                    names.set(0, (String) entry.getValue().getValue());
+                } else if (key.equals("alternate")) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> alternates = (List<? extends AnnotationValue>) entry.getValue().getValue();
+                    for (AnnotationValue alternate : alternates) {
+                        names.add((String) alternate.getValue());
+                    }
+                }
+            }
+        }
+
+        private String boxedTypeName() {
+            return type.getKind().isPrimitive()
+                    ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                    : type.toString();
+        }
+
+        private String adapterSource() {
+            if (type.getKind().isPrimitive()) {
+                return type.toString() + ".class";
+            }
+            String name = processingEnv.getTypeUtils().erasure(type).toString();
+            return name.equals(type.toString()) ? name + ".class" : "new TypeToken<" + type + ">() {}";
+        }
+    }
+}
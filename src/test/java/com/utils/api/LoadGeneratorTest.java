@@ -0,0 +1,88 @@
+package com.utils.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the load generator against a stub HTTP server on the loopback interface
+ */
+public class LoadGeneratorTest {
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/fast", exchange -> respond(exchange, 200, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 200, 200));
+        server.createContext("/error", exchange -> respond(exchange, 500, 0));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = String.format("http://%1$s:%2$s", server.getAddress().getHostString(), server.getAddress().getPort());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void allRequestsAreCompleted() {
+        LoadReport report = new LoadGenerator(8, 100, Duration.ofSeconds(10))
+                .run(LoadProfile.constant(100, Duration.ofSeconds(1)), () -> get("/fast"));
+        Assert.assertEquals(report.getScheduled(), 100);
+        Assert.assertEquals(report.getCompleted(), 100);
+        Assert.assertEquals(report.getErrors(), 0);
+        Assert.assertEquals(report.getDropped(), 0);
+        Assert.assertEquals(report.getUnfinished(), 0);
+    }
+
+    @Test
+    public void requestsOverBacklogAreDropped() {
+        LoadReport report = new LoadGenerator(2, 3, Duration.ofSeconds(10))
+                .run(LoadProfile.constant(100, Duration.ofMillis(500)), () -> get("/slow"));
+        Assert.assertEquals(report.getScheduled(), 50);
+        Assert.assertTrue(report.getDropped() > 0, report.toString());
+        Assert.assertEquals(report.getCompleted() + report.getDropped(), report.getScheduled(), report.toString());
+        Assert.assertEquals(report.getUnfinished(), 0);
+        Assert.assertTrue(report.getLatencyMicros(100) >= report.getServiceTimeMicros(100), report.toString());
+    }
+
+    @Test
+    public void errorResponsesAreCounted() {
+        LoadReport report = new LoadGenerator(4, 100, Duration.ofSeconds(10))
+                .run(LoadProfile.constant(50, Duration.ofMillis(200)), () -> get("/error"));
+        Assert.assertEquals(report.getCompleted(), report.getScheduled());
+        Assert.assertEquals(report.getErrors(), report.getCompleted());
+    }
+
+    private ApiResponse get(String path) {
+        return new ApiResponse(RestAssured.get(baseUrl + path));
+    }
+
+    private static void respond(HttpExchange exchange, int status, long delayMs) throws IOException {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}